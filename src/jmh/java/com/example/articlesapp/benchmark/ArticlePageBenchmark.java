@@ -0,0 +1,75 @@
+package com.example.articlesapp.benchmark;
+
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.service.ArticleBodyRenderer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.WebContext;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * per-request cost of the article page for large articles: the body rendered when the article
+ * was saved (prerendered) against rendering it on every view, fragments included
+ * run with: mvn -P benchmark verify -Djmh.args="ArticlePageBenchmark -prof gc"
+ *
+ * @author platoiscoding.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArticlePageBenchmark {
+
+    //about 600 characters each
+    @Param({"20", "200"})
+    private int paragraphs;
+
+    @Param({"false", "true"})
+    private boolean prerendered;
+
+    private ConfigurableApplicationContext context;
+    private TemplateEngine templateEngine;
+    private MockServletContext servletContext;
+    private Article article;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(0, "caffeine");
+        templateEngine = context.getBean(TemplateEngine.class);
+        servletContext = new MockServletContext();
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            for (int line = 0; line < 5; line++) {
+                content.append("At vero eos et accusam et justo duo dolores et ea rebum. ")
+                        .append("Stet clita kasd <gubergren> & no sea.\n");
+            }
+            content.append('\n');
+        }
+        article = BenchmarkApplication.article(0);
+        article.setContent(content.toString());
+        article.setContentHtml(ArticleBodyRenderer.render(article.getContent()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String renderArticle() {
+        if (!prerendered) {
+            article.setContentHtml(ArticleBodyRenderer.render(article.getContent()));
+        }
+        WebContext webContext = new WebContext(new MockHttpServletRequest(servletContext),
+                new MockHttpServletResponse(), servletContext, Locale.US,
+                Collections.singletonMap("article", article));
+        return templateEngine.process("articles/showArticle", webContext);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.articlesapp.benchmark;
+
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.ArticlePreview;
+import com.example.articlesapp.model.ArticleSummary;
+import com.example.articlesapp.model.PagerModel;
+import com.example.articlesapp.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * service and repository hot paths against the seeded H2 database
+ * run with: mvn -P benchmark verify -Djmh.args="ArticleServiceBenchmark -p articles=10000 -prof gc"
+ *
+ * @author platoiscoding.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArticleServiceBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1000"})
+    private int articles;
+
+    //'none' measures the database instead of the caches
+    @Param({"caffeine"})
+    private String cache;
+
+    private ConfigurableApplicationContext context;
+    private ArticleService articleService;
+    private List<Article> latest;
+    private int totalPages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(articles, cache);
+        articleService = context.getBean(ArticleService.class);
+        latest = articleService.getLatestEntries(articles);
+        totalPages = (int) ((articleService.countArticles() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private PageRequest randomPage() {
+        return PageRequest.of(ThreadLocalRandom.current().nextInt(totalPages), PAGE_SIZE);
+    }
+
+    private Article randomArticle() {
+        return latest.get(ThreadLocalRandom.current().nextInt(latest.size()));
+    }
+
+    /**
+     * full entities including the @Lob columns
+     */
+    @Benchmark
+    public Page<Article> findAll() {
+        return articleService.findAll(randomPage());
+    }
+
+    /**
+     * listing of '/articles'
+     */
+    @Benchmark
+    public Page<ArticleSummary> findAllSummaries() {
+        return articleService.findAllSummaries(randomPage());
+    }
+
+    /**
+     * listing of the index page
+     */
+    @Benchmark
+    public Page<ArticlePreview> findAllPreviews() {
+        return articleService.findAllPreviews(randomPage());
+    }
+
+    @Benchmark
+    public Article findById() {
+        return articleService.findById(randomArticle().getArticleId());
+    }
+
+    /**
+     * article page
+     */
+    @Benchmark
+    public Article findRenderedById() {
+        return articleService.findRenderedById(randomArticle().getArticleId());
+    }
+
+    @Benchmark
+    public boolean titleAndAuthorValid() {
+        Article article = randomArticle();
+        return articleService.titleAndAuthorValid(new Article(article.getTitle(), article.getCategory(),
+                article.getAuthor(), article.getDescription(), article.getContent()));
+    }
+
+    @Benchmark
+    public Article getLatestEntry() {
+        return articleService.getLatestEntry();
+    }
+
+    @Benchmark
+    public PagerModel pagerModel() {
+        return new PagerModel(totalPages, ThreadLocalRandom.current().nextInt(totalPages), 3);
+    }
+}
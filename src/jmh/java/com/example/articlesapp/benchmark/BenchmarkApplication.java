@@ -0,0 +1,102 @@
+package com.example.articlesapp.benchmark;
+
+import com.example.articlesapp.ArticlesAppApplication;
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.service.ArticleService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * starts the application with an embedded H2 database in MySQL mode
+ * and seeds it with generated articles
+ *
+ * @author platoiscoding.com
+ */
+final class BenchmarkApplication {
+
+    private static final int SEED_CHUNK = 500;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param articles  number of generated articles, besides the demo articles of the migrations
+     * @param cache     spring.cache.type, 'caffeine' or 'none'
+     * @return          running application without web server
+     */
+    static ConfigurableApplicationContext start(int articles, String cache) {
+        return start(WebApplicationType.NONE, articles, "spring.cache.type=" + cache);
+    }
+
+    /**
+     * @param articles      number of generated articles, besides the demo articles of the migrations
+     * @param properties    additional properties, e.g. 'articles.async.enabled=true'
+     * @return              running application with Tomcat on a random port, see port()
+     */
+    static ConfigurableApplicationContext startServer(int articles, String... properties) {
+        return start(WebApplicationType.SERVLET, articles, properties);
+    }
+
+    /**
+     * @return port of the Tomcat started by startServer()
+     */
+    static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("local.server.port", Integer.class);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, int articles, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ArticlesAppApplication.class)
+                .web(type)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "spring.thymeleaf.prefix=classpath:/templates/",
+                        "spring.thymeleaf.cache=true",
+                        "server.port=0",
+                        "articles.search.index-dir=",
+                        "articles.search.rebuild-on-startup=false")
+                //as arguments, they override application.properties
+                .run(Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new));
+
+        ArticleService articleService = context.getBean(ArticleService.class);
+        List<Article> chunk = new ArrayList<>(SEED_CHUNK);
+        for (int i = 0; i < articles; i++) {
+            chunk.add(article(i));
+            if (chunk.size() == SEED_CHUNK) {
+                articleService.createArticles(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            articleService.createArticles(chunk);
+        }
+        return context;
+    }
+
+    /**
+     * @return article with a few kilobytes of description and content, like the demo articles
+     */
+    static Article article(int i) {
+        return new Article("Benchmark article " + i, "Category " + (i % 10), "Author " + (i % 100),
+                repeat("Lorem ipsum dolor sit amet, consetetur sadipscing elitr. ", 10),
+                repeat("At vero eos et accusam et justo duo dolores et ea rebum. ", 100));
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
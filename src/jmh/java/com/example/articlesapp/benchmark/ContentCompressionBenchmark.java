@@ -0,0 +1,104 @@
+package com.example.articlesapp.benchmark;
+
+import com.example.articlesapp.model.CompressedTextConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CPU cost of CompressedTextConverter per article body against the bytes it saves;
+ * the bodies are built from the demo articles of the V2 seed migration, cut to the given size.
+ * The stored size of every setting is printed before its measurements.
+ * run with: mvn -P benchmark verify -Djmh.args="ContentCompressionBenchmark -p size=1024,4096"
+ *
+ * @author platoiscoding.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentCompressionBenchmark {
+
+    //bodies in the seed migration are hex literals of their UTF-8 bytes
+    private static final Pattern SEED_BODY = Pattern.compile("X'([0-9a-f]+)'");
+
+    //characters of a body
+    @Param({"512", "2048", "8192"})
+    private int size;
+
+    //deflate level; 0 stores the text uncompressed, the baseline
+    @Param({"0", "1", "6", "9"})
+    private int level;
+
+    private CompressedTextConverter converter;
+    private List<String> bodies;
+    private List<byte[]> stored;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        converter = level == 0
+                ? new CompressedTextConverter(Integer.MAX_VALUE, 0)
+                : new CompressedTextConverter(0, level);
+        List<String> seed = seedBodies();
+        bodies = new ArrayList<>();
+        stored = new ArrayList<>();
+        long textBytes = 0;
+        long storedBytes = 0;
+        for (int i = 0; i < seed.size(); i++) {
+            //different articles start each body, so that no two bodies are the same
+            StringBuilder body = new StringBuilder();
+            for (int j = i; body.length() < size; j++) {
+                body.append(seed.get(j % seed.size())).append('\n');
+            }
+            String text = body.substring(0, size);
+            bodies.add(text);
+            stored.add(converter.convertToDatabaseColumn(text));
+            textBytes += text.getBytes(StandardCharsets.UTF_8).length;
+            storedBytes += stored.get(i).length;
+        }
+        System.out.printf("%nsize=%d level=%d: %d of %d bytes stored (%.1f%%)%n",
+                size, level, storedBytes, textBytes, 100.0 * storedBytes / textBytes);
+    }
+
+    private static List<String> seedBodies() throws IOException {
+        String sql;
+        try (InputStream in = new ClassPathResource("db/seed/V2__seed_articles.sql").getInputStream()) {
+            sql = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+        List<String> bodies = new ArrayList<>();
+        Matcher matcher = SEED_BODY.matcher(sql);
+        while (matcher.find()) {
+            String hex = matcher.group(1);
+            byte[] bytes = new byte[hex.length() / 2];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+            }
+            bodies.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return bodies;
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % bodies.size();
+        return next;
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return converter.convertToDatabaseColumn(bodies.get(nextIndex()));
+    }
+
+    @Benchmark
+    public String read() {
+        return converter.convertToEntityAttribute(stored.get(nextIndex()));
+    }
+}
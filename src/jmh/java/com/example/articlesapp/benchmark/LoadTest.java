@@ -0,0 +1,404 @@
+package com.example.articlesapp.benchmark;
+
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.service.ArticleService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * end-to-end load test of the HTML pages over HTTP, against the application with an embedded H2 database
+ * seeded with load.articles generated articles
+ *
+ * readers browse: '/', '/articles?page=N', '/article/{id}'
+ * editors go through the forms of ArticleController: create, view, edit, update, delete
+ *
+ * after load.warmup-seconds the requests of load.duration-seconds are recorded; throughput, p50/p95/p99 and
+ * error rate are reported per request and in total, also to target/load-test-report.csv.
+ * The run fails (exit code 1) if the total breaks one of the load.max-* / load.min-* thresholds
+ * run with: mvn -P benchmark,load-test verify -Dload.users=100
+ *
+ * @author platoiscoding.com
+ */
+public final class LoadTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final Pattern ARTICLE_LOCATION = Pattern.compile("/article/(\\d+)$");
+
+    private final String baseUrl;
+    private final long[] articleIds;
+    private final int pages;
+    //name of the request -> latencies of every user, in microseconds
+    private final Map<String, Latencies[]> latencies = new LinkedHashMap<>();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private LoadTest(String baseUrl, long[] articleIds, int users) {
+        this.baseUrl = baseUrl;
+        this.articleIds = articleIds;
+        this.pages = Math.max(1, articleIds.length / PAGE_SIZE);
+        for (String name : Arrays.asList("index", "listing", "article", "create", "edit", "update", "delete")) {
+            Latencies[] perUser = new Latencies[users];
+            for (int i = 0; i < users; i++) {
+                perUser[i] = new Latencies();
+            }
+            latencies.put(name, perUser);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int articles = Integer.getInteger("load.articles", 10000);
+        int users = Integer.getInteger("load.users", 50);
+        int editors = Integer.getInteger("load.editors", Math.max(1, users / 10));
+        int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+        int durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+        double minThroughput = Double.parseDouble(System.getProperty("load.min-throughput", "0"));
+        double maxP95 = Double.parseDouble(System.getProperty("load.max-p95-millis", "" + Double.MAX_VALUE));
+        double maxP99 = Double.parseDouble(System.getProperty("load.max-p99-millis", "" + Double.MAX_VALUE));
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0"));
+
+        //keep-alive connections per host, the default of 5 would reconnect for most users
+        System.setProperty("http.maxConnections", String.valueOf(users));
+
+        ConfigurableApplicationContext context = BenchmarkApplication.startServer(articles,
+                //'/articles?page=N' as the request names it
+                "articles.pagination.mode=" + System.getProperty("load.pagination-mode", "offset"),
+                "server.tomcat.accept-count=1000");
+        boolean passed;
+        try {
+            long[] articleIds = context.getBean(ArticleService.class).getLatestEntries(articles).stream()
+                    .mapToLong(Article::getArticleId).toArray();
+            LoadTest loadTest = new LoadTest("http://localhost:" + BenchmarkApplication.port(context),
+                    articleIds, users);
+            Report report = loadTest.run(users, editors, warmupSeconds, durationSeconds);
+
+            report.print(System.out);
+            try (PrintStream csv = new PrintStream(Files.newOutputStream(Paths.get("target/load-test-report.csv")),
+                    false, "UTF-8")) {
+                report.printCsv(csv);
+            }
+            passed = report.check(minThroughput, maxP95, maxP99, maxErrorRate);
+        } finally {
+            context.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * @return  statistics of the recorded requests
+     */
+    private Report run(int users, int editors, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(users);
+        for (int i = 0; i < users; i++) {
+            int user = i;
+            boolean editor = i < editors;
+            Thread thread = new Thread(() -> {
+                try {
+                    while (running) {
+                        if (editor) {
+                            edit(user);
+                        } else {
+                            browse(user);
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            }, (editor ? "editor-" : "reader-") + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        recording = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        recording = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running = false;
+        finished.await(30, TimeUnit.SECONDS);
+
+        Report report = new Report(seconds, users, editors);
+        for (Map.Entry<String, Latencies[]> entry : latencies.entrySet()) {
+            report.add(entry.getKey(), entry.getValue());
+        }
+        return report;
+    }
+
+    private void browse(int user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        get(user, "index", "/?pageSize=" + PAGE_SIZE);
+        get(user, "listing", "/articles?pageSize=" + PAGE_SIZE + "&page=" + (1 + random.nextInt(pages)));
+        get(user, "article", "/article/" + articleIds[random.nextInt(articleIds.length)]);
+    }
+
+    /**
+     * an editor only changes the articles it created, so there are no conflicts between editors
+     */
+    private void edit(int user) {
+        String title = "Load " + user + " " + System.nanoTime();
+        String location = post(user, "create", "/article/create", form(title, null));
+        Matcher id = location == null ? null : ARTICLE_LOCATION.matcher(location);
+        if (id == null || !id.find()) {
+            return;
+        }
+        String path = "/article/" + id.group(1);
+        get(user, "article", path);
+        get(user, "edit", path + "/edit");
+        post(user, "update", path + "/update", form(title + " updated", 0L));
+        get(user, "delete", path + "/delete");
+    }
+
+    /**
+     * @param version null for the form of a new article, it has no version field
+     * @return  request body of the article forms, the other fields as in the generated articles
+     */
+    private static String form(String title, Long version) {
+        Article article = BenchmarkApplication.article(0);
+        return "title=" + encode(title)
+                + "&category=" + encode(article.getCategory())
+                + "&author=" + encode(article.getAuthor())
+                + "&description=" + encode(article.getDescription())
+                + "&content=" + encode(article.getContent())
+                + (version == null ? "" : "&version=" + version);
+    }
+
+    /**
+     * redirects are followed, the target is part of the measured time
+     */
+    private void get(int user, String name, String path) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            ok = read(connection) == HttpURLConnection.HTTP_OK;
+        } catch (IOException e) {
+            ok = false;
+        }
+        record(user, name, start, ok);
+    }
+
+    /**
+     * @return  Location of the redirect after the form was saved; null on errors
+     */
+    private String post(int user, String name, String path, String form) {
+        long start = System.nanoTime();
+        String location = null;
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setInstanceFollowRedirects(false);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            try (OutputStream body = connection.getOutputStream()) {
+                body.write(form.getBytes(StandardCharsets.UTF_8));
+            }
+            //back to the form if the article was not saved
+            if (read(connection) == HttpURLConnection.HTTP_MOVED_TEMP
+                    && ARTICLE_LOCATION.matcher(connection.getHeaderField("Location")).find()) {
+                location = connection.getHeaderField("Location");
+            }
+        } catch (IOException e) {
+            location = null;
+        }
+        record(user, name, start, location != null);
+        return location;
+    }
+
+    /**
+     * @return  status; the body is read to the end so the connection is reused
+     */
+    private static int read(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            byte[] buffer = new byte[8192];
+            while (body != null && body.read(buffer) >= 0) {
+                //drain
+            }
+        }
+        return status;
+    }
+
+    private void record(int user, String name, long start, boolean ok) {
+        if (recording) {
+            latencies.get(name)[user].add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), ok);
+        }
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * latencies of one user and one request, only written by the user's thread
+     */
+    private static final class Latencies {
+        private long[] micros = new long[1024];
+        private int size;
+        private int errors;
+
+        void add(long latency, boolean ok) {
+            if (size == micros.length) {
+                micros = Arrays.copyOf(micros, size * 2);
+            }
+            micros[size++] = latency;
+            if (!ok) {
+                errors++;
+            }
+        }
+    }
+
+    /**
+     * statistics per request and in total
+     */
+    private static final class Report {
+        private static final String TOTAL = "total";
+
+        private final double seconds;
+        private final int users;
+        private final int editors;
+        private final Map<String, Statistics> rows = new LinkedHashMap<>();
+        private final List<long[]> all = new ArrayList<>();
+        private int allErrors;
+
+        Report(double seconds, int users, int editors) {
+            this.seconds = seconds;
+            this.users = users;
+            this.editors = editors;
+        }
+
+        void add(String name, Latencies[] perUser) {
+            int size = 0;
+            int errors = 0;
+            for (Latencies latencies : perUser) {
+                size += latencies.size;
+                errors += latencies.errors;
+            }
+            long[] micros = new long[size];
+            int offset = 0;
+            for (Latencies latencies : perUser) {
+                System.arraycopy(latencies.micros, 0, micros, offset, latencies.size);
+                offset += latencies.size;
+            }
+            rows.put(name, new Statistics(micros, errors, seconds));
+            all.add(micros);
+            allErrors += errors;
+        }
+
+        Statistics total() {
+            long[] micros = new long[all.stream().mapToInt(latencies -> latencies.length).sum()];
+            int offset = 0;
+            for (long[] latencies : all) {
+                System.arraycopy(latencies, 0, micros, offset, latencies.length);
+                offset += latencies.length;
+            }
+            return new Statistics(micros, allErrors, seconds);
+        }
+
+        void print(PrintStream out) {
+            out.printf("%n%d users (%d editors), %.0f s%n", users, editors, seconds);
+            out.printf("%-10s %10s %10s %10s %10s %10s %10s%n",
+                    "request", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors %");
+            for (Map.Entry<String, Statistics> row : rows.entrySet()) {
+                row.getValue().print(out, row.getKey());
+            }
+            total().print(out, TOTAL);
+        }
+
+        void printCsv(PrintStream out) {
+            out.println("request,count,throughput,p50_ms,p95_ms,p99_ms,error_rate");
+            for (Map.Entry<String, Statistics> row : rows.entrySet()) {
+                row.getValue().printCsv(out, row.getKey());
+            }
+            total().printCsv(out, TOTAL);
+        }
+
+        /**
+         * @return  false if the total breaks a threshold, the broken thresholds are printed
+         */
+        boolean check(double minThroughput, double maxP95, double maxP99, double maxErrorRate) {
+            Statistics total = total();
+            List<String> failures = new ArrayList<>();
+            if (total.throughput < minThroughput) {
+                failures.add(String.format("throughput %.1f req/s < load.min-throughput %.1f",
+                        total.throughput, minThroughput));
+            }
+            if (total.p95 > maxP95) {
+                failures.add(String.format("p95 %.1f ms > load.max-p95-millis %.1f", total.p95, maxP95));
+            }
+            if (total.p99 > maxP99) {
+                failures.add(String.format("p99 %.1f ms > load.max-p99-millis %.1f", total.p99, maxP99));
+            }
+            if (total.errorRate > maxErrorRate) {
+                failures.add(String.format("error rate %.4f > load.max-error-rate %.4f",
+                        total.errorRate, maxErrorRate));
+            }
+            failures.forEach(failure -> System.err.println("FAILED: " + failure));
+            return failures.isEmpty() && total.count > 0;
+        }
+    }
+
+    private static final class Statistics {
+        private final int count;
+        private final double throughput;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double errorRate;
+
+        Statistics(long[] micros, int errors, double seconds) {
+            Arrays.sort(micros);
+            this.count = micros.length;
+            this.throughput = count / seconds;
+            this.p50 = percentile(micros, 0.50);
+            this.p95 = percentile(micros, 0.95);
+            this.p99 = percentile(micros, 0.99);
+            this.errorRate = count == 0 ? 0 : (double) errors / count;
+        }
+
+        /**
+         * @return  nearest rank, in milliseconds
+         */
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1000.0;
+        }
+
+        void print(PrintStream out, String name) {
+            out.printf("%-10s %10d %10.1f %10.1f %10.1f %10.1f %10.2f%n",
+                    name, count, throughput, p50, p95, p99, errorRate * 100);
+        }
+
+        void printCsv(PrintStream out, String name) {
+            out.printf(Locale.ROOT, "%s,%d,%.2f,%.3f,%.3f,%.3f,%.5f%n",
+                    name, count, throughput, p50, p95, p99, errorRate);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.articlesapp.benchmark;
+
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * load test of the read endpoints over HTTP, with and without articles.async.enabled
+ * every JMH thread is one client with a keep-alive connection; Tomcat has fewer worker threads than clients
+ * reports requests/s (thrpt) and latency percentiles, p0.99 included (sample)
+ * run with: mvn -P benchmark verify -Djmh.args="ReadLoadBenchmark -t 400"
+ *
+ * @author platoiscoding.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(200)
+public class ReadLoadBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1000"})
+    private int articles;
+
+    @Param({"false", "true"})
+    private boolean async;
+
+    //Tomcat worker threads
+    @Param({"50"})
+    private int maxThreads;
+
+    private ConfigurableApplicationContext context;
+    private String baseUrl;
+    private long[] articleIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.startServer(articles,
+                "articles.async.enabled=" + async,
+                "server.tomcat.max-threads=" + maxThreads,
+                "server.tomcat.accept-count=1000",
+                //every request reaches the database
+                "articles.page-cache.enabled=false",
+                "spring.cache.type=none",
+                "management.metrics.enable.all=false");
+        baseUrl = "http://localhost:" + BenchmarkApplication.port(context);
+        articleIds = context.getBean(ArticleService.class).getLatestEntries(articles).stream()
+                .mapToLong(Article::getArticleId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int index() {
+        return get("/?pageSize=" + PAGE_SIZE);
+    }
+
+    @Benchmark
+    public int allArticles() {
+        return get("/articles?pageSize=" + PAGE_SIZE);
+    }
+
+    @Benchmark
+    public int article() {
+        return get("/article/" + articleIds[ThreadLocalRandom.current().nextInt(articleIds.length)]);
+    }
+
+    /**
+     * @return status; the body is read to the end so the connection is reused
+     */
+    private int get(String path) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            int status = connection.getResponseCode();
+            try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                byte[] buffer = new byte[8192];
+                while (body != null && body.read(buffer) >= 0) {
+                    //drain
+                }
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IllegalStateException(status + " for " + path);
+            }
+            return status;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.articlesapp.benchmark;
+
+import com.example.articlesapp.model.ArticlePreview;
+import com.example.articlesapp.model.ArticleSummary;
+import com.example.articlesapp.model.PagerModel;
+import com.example.articlesapp.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.WebContext;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * full Thymeleaf rendering of the listing views, fragments included
+ * the model is read once, so only the template engine is measured
+ * run with: mvn -P benchmark verify -Djmh.args="RenderingBenchmark"
+ *
+ * @author platoiscoding.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RenderingBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1000"})
+    private int articles;
+
+    private ConfigurableApplicationContext context;
+    private TemplateEngine templateEngine;
+    private MockServletContext servletContext;
+    private Map<String, Object> indexModel;
+    private Map<String, Object> allArticlesModel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(articles, "caffeine");
+        templateEngine = context.getBean(TemplateEngine.class);
+        servletContext = new MockServletContext();
+
+        ArticleService articleService = context.getBean(ArticleService.class);
+        Page<ArticlePreview> previews = articleService.findAllPreviews(PageRequest.of(1, PAGE_SIZE));
+        Page<ArticleSummary> summaries = articleService.findAllSummaries(PageRequest.of(1, PAGE_SIZE));
+        indexModel = model(previews);
+        allArticlesModel = model(summaries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static Map<String, Object> model(Page<? extends ArticleSummary> articlesList) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("articlesList", articlesList);
+        model.put("pager", new PagerModel(articlesList.getTotalPages(), articlesList.getNumber(), 3));
+        model.put("keyset", false);
+        model.put("selectedPageSize", PAGE_SIZE);
+        model.put("pageSizes", new int[]{5, 10});
+        return model;
+    }
+
+    private String render(String view, Map<String, Object> model) {
+        WebContext webContext = new WebContext(new MockHttpServletRequest(servletContext),
+                new MockHttpServletResponse(), servletContext, Locale.US, model);
+        return templateEngine.process(view, webContext);
+    }
+
+    @Benchmark
+    public String renderIndex() {
+        return render("index", indexModel);
+    }
+
+    @Benchmark
+    public String renderAllArticles() {
+        return render("articles/allArticles", allArticlesModel);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.articlesapp.benchmark;
+
+import com.example.articlesapp.ArticlesAppApplication;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * time from launching the application in a new JVM to the first 200 of '/', with the prod profile
+ * and an embedded H2 database; every invocation is a cold start, so warmup and measurement iterations
+ * are simply repetitions. The output of the started applications goes to target/startup-benchmark.log
+ * run with: mvn -P benchmark verify -Djmh.args="StartupBenchmark -p devtools=true,false"
+ *
+ * @author platoiscoding.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    private static final long TIMEOUT_MILLIS = 120_000;
+
+    //articles.startup.lazy-init of the prod profile
+    @Param({"false", "true"})
+    private boolean lazy;
+
+    //class data sharing archive written by a first start, needs JDK 13 or later
+    @Param({"false"})
+    private boolean cds;
+
+    //spring-boot-devtools on the classpath, as when started from the IDE instead of the jar
+    @Param({"false"})
+    private boolean devtools;
+
+    private String classpath;
+    private File archive;
+    private File log;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            //the test resources would replace application.properties
+            if (entry.endsWith("test-classes") || !devtools && entry.contains("spring-boot-devtools")) {
+                continue;
+            }
+            //class data sharing only archives classes from jars
+            entries.add(new File(entry).isDirectory() ? jar(new File(entry)).getPath() : entry);
+        }
+        classpath = String.join(File.pathSeparator, entries);
+        log = new File("target/startup-benchmark.log");
+        archive = new File("target/startup-benchmark.jsa");
+        if (cds) {
+            archive.delete();
+            start("-XX:ArchiveClassesAtExit=" + archive.getPath());
+        }
+    }
+
+    @Benchmark
+    public long firstResponse() throws Exception {
+        return cds ? start("-XX:SharedArchiveFile=" + archive.getPath()) : start();
+    }
+
+    /**
+     * @param jvmOptions    options of the started JVM
+     * @return              milliseconds until '/' answered with 200; the application is stopped afterwards
+     */
+    private long start(String... jvmOptions) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.addAll(Arrays.asList(jvmOptions));
+        //system properties, command line arguments must not be empty
+        command.addAll(Arrays.asList(
+                "-Dspring.profiles.active=prod",
+                "-Dserver.port=" + port,
+                "-Darticles.startup.lazy-init=" + lazy,
+                "-Dspring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "-Dspring.datasource.username=sa",
+                "-Dspring.datasource.password=",
+                "-Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "-Darticles.search.index-dir=",
+                "-cp", classpath, ArticlesAppApplication.class.getName()));
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+                .start();
+        try {
+            while (status(port) != HttpURLConnection.HTTP_OK) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("application exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS)) {
+                    throw new IllegalStateException("no 200 within " + TIMEOUT_MILLIS + " ms, see " + log);
+                }
+                Thread.sleep(10);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            //a normal exit, the class data sharing archive is written on it
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * @param directory     classes and resources
+     * @return              target/startup-benchmark-'name'.jar with the content of the directory
+     */
+    private static File jar(File directory) throws IOException {
+        File jar = new File("target/startup-benchmark-" + directory.getName() + ".jar");
+        Path root = directory.toPath();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+             Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.filter(file -> !file.equals(root))::iterator) {
+                String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+                //directory entries, classpath scanning and the Flyway locations look for them
+                if (Files.isDirectory(file)) {
+                    out.putNextEntry(new JarEntry(name + "/"));
+                } else {
+                    out.putNextEntry(new JarEntry(name));
+                    Files.copy(file, out);
+                }
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    /**
+     * @return status of '/', -1 while nothing listens on the port
+     */
+    private static int status(int port) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/").openConnection();
+            connection.setConnectTimeout(1000);
+            return connection.getResponseCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.articlesapp;
+
+import com.example.articlesapp.model.ImportResult;
+import com.example.articlesapp.service.ArticleImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * imports a CSV or NDJSON file on startup, e.g.
+ *      java -jar articles-app.jar --articles.import.file=articles.csv --spring.main.web-application-type=none
+ *
+ * @author platoiscoding.com
+ */
+@Component
+@ConditionalOnProperty("articles.import.file")
+public class ArticleImportRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleImportRunner.class);
+
+    @Autowired
+    private ArticleImportService articleImportService;
+
+    @Value("${articles.import.file}")
+    private String file;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try (InputStream input = Files.newInputStream(Paths.get(file))) {
+            ImportResult result = articleImportService.importArticles(input,
+                    ArticleImportService.Format.fromFileName(file));
+            logger.info("{}: {}", file, result);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.articlesapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * there is already an article with the same title and author
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateArticleException extends RuntimeException {
+
+    public DuplicateArticleException() {
+        super();
+    }
+
+    public DuplicateArticleException(String message) {
+        super(message);
+    }
+
+    public DuplicateArticleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.articlesapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * the article was saved by someone else since the version the update is based on
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StaleArticleException extends RuntimeException {
+
+    public StaleArticleException() {
+        super();
+    }
+
+    public StaleArticleException(String message) {
+        super(message);
+    }
+
+    public StaleArticleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
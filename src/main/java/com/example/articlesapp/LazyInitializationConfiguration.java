@@ -0,0 +1,43 @@
+package com.example.articlesapp;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * with articles.startup.lazy-init=true beans are created when they are first used instead of on startup,
+ * see 'Startup Properties'. Spring infrastructure and the beans of articles.startup.eager-beans stay eager;
+ * filters, runners and event listeners are still created on startup because Spring looks them up then.
+ * Measured with StartupBenchmark
+ *
+ * @author platoiscoding.com
+ */
+@Configuration
+@ConditionalOnProperty("articles.startup.lazy-init")
+public class LazyInitializationConfiguration {
+
+    /**
+     * @param environment   articles.startup.eager-beans, comma separated bean names
+     * @return              marks the application's bean definitions as lazy
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyInitialization(Environment environment) {
+        Set<String> eagerBeans = new HashSet<>(Arrays.asList(
+                environment.getProperty("articles.startup.eager-beans", String[].class, new String[0])));
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (definition.getRole() == BeanDefinition.ROLE_APPLICATION && !eagerBeans.contains(name)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.articlesapp.assets;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * build step, run by the exec-maven-plugin on target/classes/static after the resources are copied:
+ * writes smaller copies of the large JPEGs (name-640w.jpg, name-1280w.jpg) and a .gz next to every
+ * text asset, which StaticResourceConfiguration serves to clients that accept gzip.
+ * Files that are up to date are skipped
+ *
+ * @author platoiscoding.com
+ */
+public final class StaticAssetBuilder {
+
+    //widths of the copies; smaller images are left as they are
+    private static final int[] WIDTHS = {640, 1280};
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final List<String> TEXT_EXTENSIONS = Arrays.asList("css", "js", "svg", "json", "txt", "html");
+    //smaller files are not worth a second request header
+    private static final int MIN_GZIP_BYTES = 1024;
+
+    private StaticAssetBuilder() {
+    }
+
+    /**
+     * @param args  directory of the static resources
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        Path root = Paths.get(args[0]);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String extension = extension(file);
+            if ((extension.equals("jpg") || extension.equals("jpeg")) && !isVariant(file)) {
+                resize(file, extension);
+            } else if (TEXT_EXTENSIONS.contains(extension)) {
+                gzip(file);
+            }
+        }
+    }
+
+    private static void resize(Path file, String extension) throws IOException {
+        BufferedImage image = null;
+        for (int width : WIDTHS) {
+            Path target = sibling(file, "-" + width + "w." + extension);
+            if (isUpToDate(target, file)) {
+                continue;
+            }
+            if (image == null) {
+                image = ImageIO.read(file.toFile());
+            }
+            if (image.getWidth() <= width) {
+                continue;
+            }
+            int height = Math.round(image.getHeight() * (float) width / image.getWidth());
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+            graphics.dispose();
+            writeJpeg(scaled, target);
+        }
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        //shown coarse first while the rest loads
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static void gzip(Path file) throws IOException {
+        Path target = sibling(file, "." + extension(file) + ".gz");
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < MIN_GZIP_BYTES || isUpToDate(target, file)) {
+            return;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2);
+        try (OutputStream out = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(bytes);
+        }
+        if (compressed.size() < bytes.length) {
+            Files.write(target, compressed.toByteArray());
+        }
+    }
+
+    /**
+     * @return  same directory, the name without its extension plus the suffix
+     */
+    private static Path sibling(Path file, String suffix) {
+        String name = file.getFileName().toString();
+        return file.resolveSibling(name.substring(0, name.lastIndexOf('.')) + suffix);
+    }
+
+    private static boolean isVariant(Path file) {
+        return file.getFileName().toString().matches(".*-\\d+w\\.[a-z]+");
+    }
+
+    private static boolean isUpToDate(Path target, Path source) {
+        File targetFile = target.toFile();
+        return targetFile.exists() && targetFile.lastModified() >= source.toFile().lastModified();
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+}
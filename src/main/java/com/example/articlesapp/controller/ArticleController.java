@@ -1,10 +1,18 @@
 package com.example.articlesapp.controller;
 
-import com.example.articlesapp.Exception.ResourceNotFoundException;
+import com.example.articlesapp.exception.DuplicateArticleException;
+import com.example.articlesapp.exception.ResourceNotFoundException;
+import com.example.articlesapp.exception.StaleArticleException;
 import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.ArticlePreview;
+import com.example.articlesapp.model.ArticleSummary;
+import com.example.articlesapp.model.KeysetPage;
 import com.example.articlesapp.model.PagerModel;
+import com.example.articlesapp.model.SearchHit;
+import com.example.articlesapp.service.ArticleSearchService;
 import com.example.articlesapp.service.ArticleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,9 +21,11 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import javax.validation.Valid;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -34,51 +44,126 @@ public class ArticleController {
     protected static final String ARTICLE_EDIT_FORM_VIEW = "articles/editArticle";          //form for editing an article
     protected static final String ARTICLE_PAGE_VIEW = "articles/allArticles";     //list with pagination
     protected static final String INDEX_VIEW = "index";     //articles with pagination
+    protected static final String SEARCH_VIEW = "articles/searchArticles";   //full-text search with pagination
 
     //pagination
     private static final int BUTTONS_TO_SHOW = 3;
     private static final int INITIAL_PAGE = 0;
     private static final int INITIAL_PAGE_SIZE = 5;
     private static final int[] PAGE_SIZES = { 5, 10};
+    private static final String KEYSET_PAGINATION = "keyset";
+
+    //messages
+    private static final String DUPLICATE_MESSAGE = "There is already an article with this title and author.";
+    private static final String STALE_MESSAGE = "Someone else saved this article while you were editing it. "
+            + "Their version is shown below the form; merge their changes into yours and save again.";
 
     @Autowired
     private ArticleService articleService;
 
+    @Autowired
+    private ArticleSearchService articleSearchService;
+
+    @Autowired
+    private ConditionalRequests conditionalRequests;
+
+    @Autowired
+    private ReadExecutor readExecutor;
+
+    //'offset' (page numbers) or 'keyset' (cursors)
+    @Value("${articles.pagination.mode:offset}")
+    private String paginationMode;
+
     /**
      *
      * @param pageSize
      * @param page
-     * @return
+     * @param cursor        position in keyset pagination mode
+     * @param webRequest    for conditional requests
+     * @return              completes with null if the client's copy is still valid
      */
     @GetMapping({"/", "/index"})
-    public ModelAndView getIndex(@RequestParam("pageSize") Optional<Integer> pageSize,
-                           @RequestParam("page") Optional<Integer> page) {
-        ModelAndView modelAndView = initPagination(pageSize, page, INDEX_VIEW);
-        return modelAndView;
+    public CompletableFuture<ModelAndView> getIndex(@RequestParam("pageSize") Optional<Integer> pageSize,
+                           @RequestParam("page") Optional<Integer> page,
+                           @RequestParam("cursor") Optional<String> cursor,
+                           ServletWebRequest webRequest) {
+        //the watermark may be read from the database, not on the request thread
+        return readExecutor.supply(() -> {
+            long lastModified = articleService.getLastModified();
+            if (conditionalRequests.notModified(webRequest, Long.toHexString(lastModified), lastModified)) {
+                return null;
+            }
+            return initPagination(pageSize, page, cursor, Optional.empty(), INDEX_VIEW);
+        });
     }
 
     /**
      * GET article by id
      * @param articleId
-     * @param model         attributeValues
-     * @return              view template for single article
+     * @param webRequest    for conditional requests
+     * @return              view template for single article; completes with null if the client's copy is still valid
      */
     @GetMapping("/article/{id}")
-    public String getArticleById(@PathVariable(value = "id") Long articleId, Model model) {
-        model.addAttribute("article", articleService.findById(articleId));
-        return ARTICLE_VIEW;
+    public CompletableFuture<ModelAndView> getArticleById(@PathVariable(value = "id") Long articleId,
+                                                          ServletWebRequest webRequest) {
+        return readExecutor.supply(() -> {
+            //the version, updatedAt may have whole seconds only
+            Article article = articleService.findRenderedById(articleId);
+            if (conditionalRequests.notModified(webRequest, articleId + "-" + article.getVersion(),
+                    article.getUpdatedAt().getTime())) {
+                return null;
+            }
+            return new ModelAndView(ARTICLE_VIEW, "article", article);
+        });
     }
 
     /**
      * GET all articles from database
      * @param pageSize      number of articles per page
      * @param page          subset of all articles
-     * @return
+     * @param cursor        position in keyset pagination mode
+     * @param category      only articles of this category
+     * @param webRequest    for conditional requests
+     * @return              completes with null if the client's copy is still valid
      */
     @GetMapping("/articles")
-    public ModelAndView getAllArticles(@RequestParam("pageSize") Optional<Integer> pageSize,
-                                                 @RequestParam("page") Optional<Integer> page) {
-        ModelAndView modelAndView = initPagination(pageSize, page, ARTICLE_PAGE_VIEW);
+    public CompletableFuture<ModelAndView> getAllArticles(@RequestParam("pageSize") Optional<Integer> pageSize,
+                                                 @RequestParam("page") Optional<Integer> page,
+                                                 @RequestParam("cursor") Optional<String> cursor,
+                                                 @RequestParam("category") Optional<String> category,
+                                                 ServletWebRequest webRequest) {
+        return readExecutor.supply(() -> {
+            long lastModified = articleService.getLastModified();
+            if (conditionalRequests.notModified(webRequest, Long.toHexString(lastModified), lastModified)) {
+                return null;
+            }
+            return initPagination(pageSize, page, cursor, category, ARTICLE_PAGE_VIEW);
+        });
+    }
+
+    /**
+     * SEARCH articles in the full-text index
+     * @param query         search terms; Lucene query syntax
+     * @param pageSize      number of hits per page
+     * @param page          subset of all hits
+     * @return              SEARCH_VIEW
+     */
+    @GetMapping("/search")
+    public ModelAndView searchArticles(@RequestParam("q") Optional<String> query,
+                                       @RequestParam("pageSize") Optional<Integer> pageSize,
+                                       @RequestParam("page") Optional<Integer> page) {
+        ModelAndView modelAndView = new ModelAndView(SEARCH_VIEW);
+        int evalPageSize = pageSize.orElse(INITIAL_PAGE_SIZE);
+        int evalPage = (page.orElse(0) < 1) ? INITIAL_PAGE : page.get() - 1;
+        String evalQuery = query.orElse("").trim();
+
+        if (!evalQuery.isEmpty()) {
+            Page<SearchHit> hits = articleSearchService.search(evalQuery, PageRequest.of(evalPage, evalPageSize));
+            modelAndView.addObject("hits", hits);
+            modelAndView.addObject("pager", new PagerModel(hits.getTotalPages(), hits.getNumber(), BUTTONS_TO_SHOW));
+        }
+        modelAndView.addObject("query", evalQuery);
+        modelAndView.addObject("selectedPageSize", evalPageSize);
         return modelAndView;
     }
 
@@ -100,7 +185,8 @@ public class ArticleController {
     /**
      * CREATE_NEW_ARTICLE checks...
      *          (1)field values for errors
-     *          (2)whether databse already contains an article with the same name and author as field values
+     *          (2)whether databse already contains an article with the same name and author as field values;
+     *             the unique constraint on (title, author) catches concurrent requests
      *
      * @param article       entity
      * @param result        result of validation of field values from ARTICLE_ADD_FORM_VIEW
@@ -113,17 +199,27 @@ public class ArticleController {
     public String createArticle(@Valid Article article, BindingResult result, Model model,
                                 RedirectAttributes attr) {
 
-        if (result.hasErrors() || articleService.titleAndAuthorValid(article) == false) {
+        //the form has no version; a posted one would make Spring Data merge instead of persist
+        article.setVersion(null);
+        if (!result.hasErrors() && !articleService.titleAndAuthorValid(article)) {
+            result.rejectValue("title", "duplicate", DUPLICATE_MESSAGE);
+        }
+        if (!result.hasErrors()) {
+            try {
+                Article newArticle = articleService.createArticle(article);
+                model.addAttribute("article", newArticle);
 
-            //After the redirect: flash attributes pass attributes to the model
-            attr.addFlashAttribute("org.springframework.validation.BindingResult.article", result);
-            attr.addFlashAttribute("article", article);
-            return "redirect:/article/new";
+                return "redirect:/article/" + newArticle.getArticleId();
+            } catch (DuplicateArticleException e) {
+                //another request created the same title and author after the check
+                result.rejectValue("title", "duplicate", DUPLICATE_MESSAGE);
+            }
         }
-        Article newArticle = articleService.createArticle(article);
-        model.addAttribute("article", newArticle);
 
-        return "redirect:/article/" + newArticle.getArticleId();
+        //After the redirect: flash attributes pass attributes to the model
+        attr.addFlashAttribute("org.springframework.validation.BindingResult.article", result);
+        attr.addFlashAttribute("article", article);
+        return "redirect:/article/new";
     }
 
     /**
@@ -136,7 +232,7 @@ public class ArticleController {
     public String editArticle(@PathVariable(value = "id") Long articleId, Model model) {
         /*
             in case of redirection from '/article/{id}/update'
-            model will contain article with field values
+            model will contain article with field values, and after a conflict the saved article as 'savedArticle'
          */
         if (!model.containsAttribute("article")) {
             model.addAttribute("article", articleService.findById(articleId));
@@ -152,24 +248,39 @@ public class ArticleController {
      * @param result            result of validation of field values from ARTICLE_ADD_FORM_VIEW
      * @param model             attributeValues
      * @param attr              stores flash attributes; used when method returns a redirect view name
-     * @return  if !valid: redirect: '/article/{articleId}/edit'
+     * @return  if !valid or saved by someone else since the form was loaded: redirect: '/article/{articleId}/edit'
      *          else:      redirect: '/article/{articleId}'
+     * @throws com.example.articlesapp.exception.BadRequestException if the form has no version
      */
     @RequestMapping(path = "/article/{id}/update", method = RequestMethod.POST)
     public String updateArticle(@PathVariable(value = "id") Long articleId, @Valid Article articleDetails,
                                 BindingResult result, Model model, RedirectAttributes attr) {
 
-        if (result.hasErrors() || articleService.titleAndAuthorValid(articleDetails) == false) {
-
-            ///After the redirect: flash attributes pass attributes to the model
-            attr.addFlashAttribute("org.springframework.validation.BindingResult.article", result);
-            attr.addFlashAttribute("article", articleDetails);
-            return "redirect:/article/" + articleDetails.getArticleId() + "/edit";
+        //the article itself does not count as duplicate
+        articleDetails.setArticleId(articleId);
+        if (!result.hasErrors() && !articleService.titleAndAuthorValid(articleDetails)) {
+            result.rejectValue("title", "duplicate", DUPLICATE_MESSAGE);
+        }
+        if (!result.hasErrors()) {
+            try {
+                articleService.updateArticle(articleId, articleDetails);
+                return "redirect:/article/" + articleId;
+            } catch (DuplicateArticleException e) {
+                //another request saved the same title and author after the check
+                result.rejectValue("title", "duplicate", DUPLICATE_MESSAGE);
+            } catch (StaleArticleException e) {
+                //the form keeps the user's values and is based on the saved version from now on
+                Article savedArticle = articleService.findById(articleId);
+                articleDetails.setVersion(savedArticle.getVersion());
+                result.reject("stale", STALE_MESSAGE);
+                attr.addFlashAttribute("savedArticle", savedArticle);
+            }
         }
 
-        articleService.updateArticle(articleId, articleDetails);
-        model.addAttribute("article", articleService.findById(articleId));
-        return "redirect:/article/" + articleId;
+        ///After the redirect: flash attributes pass attributes to the model
+        attr.addFlashAttribute("org.springframework.validation.BindingResult.article", result);
+        attr.addFlashAttribute("article", articleDetails);
+        return "redirect:/article/" + articleId + "/edit";
     }
 
 
@@ -180,8 +291,6 @@ public class ArticleController {
      */
     @RequestMapping(value= "/article/{id}/delete")
     public String deleteArticle(@PathVariable("id") Long articleId) {
-        Article article = articleService.findById(articleId);
-        String title = article.getTitle();
         articleService.deleteArticle(articleId);
         return "redirect:/articles";
     }
@@ -189,26 +298,59 @@ public class ArticleController {
     /**
      *
      * @param pageSize
-     * @param page
+     * @param page      ignored in keyset pagination mode
+     * @param cursor    ignored in offset pagination mode
+     * @param category  only articles of this category; the table in '/articles' shows the counts of all categories
      * @return
      */
-    public ModelAndView initPagination(Optional<Integer> pageSize,Optional<Integer> page, String url){
+    public ModelAndView initPagination(Optional<Integer> pageSize, Optional<Integer> page,
+                                       Optional<String> cursor, Optional<String> category, String url){
         ModelAndView initModelView = new ModelAndView(url);
         // If pageSize == null, return initial page size
         int evalPageSize = pageSize.orElse(INITIAL_PAGE_SIZE);
-        /*
-            If page == null || page < 0 (to prevent exception), return initial size
-            Else, return value of param. decreased by 1
-        */
-        int evalPage = (page.orElse(0) < 1) ? INITIAL_PAGE : page.get() - 1;
+        String evalCategory = category.filter(value -> !value.isEmpty()).orElse(null);
+        //index shows the description, the table in '/articles' needs no @Lob columns at all
+        Class<? extends ArticleSummary> type = INDEX_VIEW.equals(url) ? ArticlePreview.class : ArticleSummary.class;
+        boolean keyset = KEYSET_PAGINATION.equals(paginationMode);
+
+        if (keyset) {
+            KeysetPage<? extends ArticleSummary> articlesList =
+                    articleService.findKeysetPage(evalCategory, cursor.orElse(null), evalPageSize, type);
+            long total = evalCategory == null
+                    ? articleService.countArticles() : articleService.countArticles(evalCategory);
+            PagerModel pager = new PagerModel(total, evalPageSize, articlesList.getNumber(), BUTTONS_TO_SHOW);
 
-        Page<Article> articlesList = articleService.findAll(PageRequest.of(evalPage, evalPageSize));
-        PagerModel pager = new PagerModel(articlesList.getTotalPages(),articlesList.getNumber(),BUTTONS_TO_SHOW);
+            initModelView.addObject("articlesList", articlesList);
+            initModelView.addObject("pager", pager);
+        } else {
+            /*
+                If page == null || page < 0 (to prevent exception), return initial size
+                Else, return value of param. decreased by 1
+            */
+            int evalPage = (page.orElse(0) < 1) ? INITIAL_PAGE : page.get() - 1;
 
-        initModelView.addObject("articlesList",articlesList);
+            Pageable pageable = PageRequest.of(evalPage, evalPageSize);
+            Page<? extends ArticleSummary> articlesList;
+            if (evalCategory != null) {
+                articlesList = articleService.findCategoryPage(evalCategory, pageable, type);
+            } else {
+                articlesList = type == ArticlePreview.class
+                        ? articleService.findAllPreviews(pageable)
+                        : articleService.findAllSummaries(pageable);
+            }
+            PagerModel pager = new PagerModel(articlesList.getTotalPages(),articlesList.getNumber(),BUTTONS_TO_SHOW);
+
+            initModelView.addObject("articlesList", articlesList);
+            initModelView.addObject("pager", pager);
+        }
+        if (ARTICLE_PAGE_VIEW.equals(url)) {
+            //from the aggregate, not a GROUP BY per page view
+            initModelView.addObject("categories", articleService.findCategoryCounts());
+            initModelView.addObject("category", evalCategory);
+        }
+        initModelView.addObject("keyset", keyset);
         initModelView.addObject("selectedPageSize", evalPageSize);
         initModelView.addObject("pageSizes", PAGE_SIZES);
-        initModelView.addObject("pager", pager);
         return initModelView;
     }
 }
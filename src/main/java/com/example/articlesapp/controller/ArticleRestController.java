@@ -0,0 +1,250 @@
+package com.example.articlesapp.controller;
+
+import com.example.articlesapp.exception.BadRequestException;
+import com.example.articlesapp.exception.DuplicateArticleException;
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.ArticlePreview;
+import com.example.articlesapp.model.CategoryCount;
+import com.example.articlesapp.model.ChangeBatch;
+import com.example.articlesapp.model.ImportResult;
+import com.example.articlesapp.model.SearchHit;
+import com.example.articlesapp.model.KeysetPage;
+import com.example.articlesapp.service.ArticleImportService;
+import com.example.articlesapp.service.ArticleSearchService;
+import com.example.articlesapp.service.ArticleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON api for articles
+ *
+ * @author platoiscoding.com
+ */
+@RestController
+@RequestMapping("/api/articles")
+public class ArticleRestController {
+
+    //newline delimited JSON, one article per line
+    protected static final String NDJSON = "application/x-ndjson";
+
+    //pagination
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleImportService articleImportService;
+
+    @Autowired
+    private ArticleSearchService articleSearchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConditionalRequests conditionalRequests;
+
+    //the export streams the whole table; spring.mvc.async.request-timeout is meant for single reads
+    @Value("${articles.export.timeout-ms:600000}")
+    private long exportTimeoutMillis;
+
+    /**
+     * GET a page of articles without content, newest first
+     * @param pageSize  number of articles per page, at most MAX_PAGE_SIZE
+     * @param cursor    nextCursor or previousCursor of another page; none for the first page
+     * @param category  only articles of this category; none for all articles
+     * @return          page with the cursors of the neighbouring pages
+     */
+    @GetMapping
+    public KeysetPage<ArticlePreview> getArticles(@RequestParam(value = "pageSize", defaultValue = "" + DEFAULT_PAGE_SIZE) int pageSize,
+                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "category", required = false) String category) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return articleService.findKeysetPage(category, cursor, pageSize, ArticlePreview.class);
+    }
+
+    /**
+     * GET the categories and their number of articles
+     * @return          alphabetical order, categories without articles are left out
+     */
+    @GetMapping("/categories")
+    public List<CategoryCount> getCategories() {
+        return articleService.findCategoryCounts();
+    }
+
+    /**
+     * GET the changes since a token, for clients that keep a copy of the articles
+     * @param since     nextToken of the previous batch; none for all articles
+     * @param pageSize  number of changes per batch, at most MAX_PAGE_SIZE
+     * @return          created, updated and deleted articles in the order of their change, with the next token
+     */
+    @GetMapping("/changes")
+    public ChangeBatch getChanges(@RequestParam(value = "since", required = false) String since,
+                                  @RequestParam(value = "pageSize", defaultValue = "" + DEFAULT_PAGE_SIZE) int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return articleService.findChanges(since, pageSize);
+    }
+
+    /**
+     * SEARCH articles in the full-text index
+     * @param query     Lucene query syntax
+     * @param page      number of the page, starting with 0
+     * @param pageSize  number of hits per page, at most MAX_PAGE_SIZE
+     * @return          hits with highlighted fragments, best match first
+     */
+    @GetMapping("/search")
+    public Page<SearchHit> searchArticles(@RequestParam("q") String query,
+                                          @RequestParam(value = "page", defaultValue = "0") int page,
+                                          @RequestParam(value = "pageSize", defaultValue = "" + DEFAULT_PAGE_SIZE) int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE || page < 0) {
+            throw new BadRequestException("page must be positive and pageSize between 1 and " + MAX_PAGE_SIZE);
+        }
+        return articleSearchService.search(query, PageRequest.of(page, pageSize));
+    }
+
+    /**
+     * REBUILD the full-text index from the database
+     * @return  number of indexed articles
+     */
+    @PostMapping("/search/rebuild")
+    public Map<String, Long> rebuildSearchIndex() {
+        return Collections.singletonMap("indexed", articleSearchService.rebuild());
+    }
+
+    /**
+     * GET article by id
+     * @param articleId
+     * @param webRequest    for conditional requests
+     * @return          article with content; null if the client's copy is still valid
+     */
+    @GetMapping("/{id}")
+    public Article getArticle(@PathVariable("id") Long articleId, ServletWebRequest webRequest) {
+        Article article = articleService.findById(articleId);
+        //the version, updatedAt may have whole seconds only
+        if (conditionalRequests.notModified(webRequest, articleId + "-" + article.getVersion(),
+                article.getUpdatedAt().getTime())) {
+            return null;
+        }
+        return article;
+    }
+
+    /**
+     * CREATE article
+     * @param article   field values; an articleId and a version are ignored
+     * @return          201 with the location of the new article
+     */
+    @PostMapping
+    public ResponseEntity<Article> createArticle(@Valid @RequestBody Article article) {
+        //with a version Spring Data would merge instead of persist
+        article.setArticleId(0);
+        article.setVersion(null);
+        if (!articleService.titleAndAuthorValid(article)) {
+            throw new DuplicateArticleException("There is already an article with title = "
+                    + article.getTitle() + " and author = " + article.getAuthor());
+        }
+        Article newArticle = articleService.createArticle(article);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+                .buildAndExpand(newArticle.getArticleId()).toUri();
+        return ResponseEntity.created(location).body(newArticle);
+    }
+
+    /**
+     * UPDATE article; 409 if the version of the field values is not the current one, 400 without a version
+     * @param articleId
+     * @param articleDetails    field values, with the version they are based on
+     * @return                  updated field values with the new version
+     */
+    @PutMapping("/{id}")
+    public Article updateArticle(@PathVariable("id") Long articleId, @Valid @RequestBody Article articleDetails) {
+        articleDetails.setArticleId(articleId);
+        if (!articleService.titleAndAuthorValid(articleDetails)) {
+            throw new DuplicateArticleException("There is already an article with title = "
+                    + articleDetails.getTitle() + " and author = " + articleDetails.getAuthor());
+        }
+        return articleService.updateArticle(articleId, articleDetails);
+    }
+
+    /**
+     * DELETE article
+     * @param articleId
+     */
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteArticle(@PathVariable("id") Long articleId) {
+        articleService.deleteArticle(articleId);
+    }
+
+    /**
+     * IMPORT articles from a CSV ('.csv') or NDJSON file
+     * @param file      multipart upload
+     * @return          counts and rows per second
+     * @throws IOException if the upload cannot be read
+     */
+    @PostMapping("/import")
+    public ImportResult importArticles(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return articleImportService.importArticles(input,
+                    ArticleImportService.Format.fromFileName(file.getOriginalFilename()));
+        }
+    }
+
+    /**
+     * EXPORT all articles as NDJSON
+     * the articles are read with a database cursor and written one by one,
+     * so the heap does not grow with the number of articles
+     * @param response  written after the handler returned
+     * @return          writes the response, with its own timeout
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportArticles(HttpServletResponse response) {
+        ObjectWriter writer = objectMapper.writerFor(Article.class);
+        response.setContentType(NDJSON);
+        response.setHeader("Content-Disposition", "attachment; filename=\"articles.ndjson\"");
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            OutputStream out = new BufferedOutputStream(response.getOutputStream());
+            try {
+                articleService.forEachArticle(article -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(article));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+            return null;
+        });
+    }
+}
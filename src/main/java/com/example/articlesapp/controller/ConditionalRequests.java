@@ -0,0 +1,41 @@
+package com.example.articlesapp.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ETag, Last-Modified and Cache-Control for the read endpoints
+ * a matching If-None-Match or If-Modified-Since is answered with 304 before anything is loaded or rendered
+ *
+ * @author platoiscoding.com
+ */
+@Component
+public class ConditionalRequests {
+
+    //how long a CDN or reverse proxy may serve a response without revalidating; browsers always revalidate
+    @Value("${articles.http.shared-max-age-seconds:0}")
+    private long sharedMaxAgeSeconds;
+
+    /**
+     * @param webRequest    current request, the headers are set on its response
+     * @param version       changes whenever the resource changes
+     * @param lastModified  time of the last change, in milliseconds
+     * @return              true if the response is 304 and the handler must return null
+     */
+    public boolean notModified(ServletWebRequest webRequest, String version, long lastModified) {
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl().getHeaderValue());
+        //weak, the body may be compressed on the way
+        return webRequest.checkNotModified("W/\"" + version + "\"", lastModified);
+    }
+
+    private CacheControl cacheControl() {
+        return sharedMaxAgeSeconds > 0
+                ? CacheControl.maxAge(0, TimeUnit.SECONDS).sMaxAge(sharedMaxAgeSeconds, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache().cachePublic();
+    }
+}
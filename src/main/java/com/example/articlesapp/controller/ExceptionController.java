@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @ControllerAdvice
 public class ExceptionController {
 
@@ -30,6 +32,15 @@ public class ExceptionController {
         return modelAndView;
     }
 
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ModelAndView ServiceUnavailableView(RejectedExecutionException exception){
+        ModelAndView modelAndView = new ModelAndView("errorView");
+        modelAndView.addObject("title", "Service Unavailable");
+        modelAndView.addObject("ex", exception);
+        return modelAndView;
+    }
+
     @ExceptionHandler({NumberFormatException.class, NoHandlerFoundException.class, IllegalArgumentException.class})
     public ModelAndView NumberFormatView(Exception exception){
         ModelAndView modelAndView = new ModelAndView("errorView");
@@ -0,0 +1,151 @@
+package com.example.articlesapp.controller;
+
+import com.example.articlesapp.datasource.PrimaryStickinessInterceptor;
+import com.example.articlesapp.service.ArticleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.articlesapp.service.ArticleServiceImpl.PAGE_CACHE;
+
+/**
+ * caches the rendered HTML of the listing pages '/' and '/articles'
+ * only requests without a session are served from the cache, sessions carry flash attributes
+ * the key contains the modification watermark read before rendering, which moves after the commit of a change,
+ * so a page rendered during a change is not served afterwards; ArticleServiceImpl clears the old pages
+ * ETag, Last-Modified and Cache-Control are stored with the HTML, conditional requests still get a 304
+ * a page that is cached is read from the primary, see PrimaryStickinessInterceptor
+ *
+ * @author platoiscoding.com
+ */
+@Component
+@ConditionalOnProperty("articles.page-cache.enabled")
+public class PageCacheFilter extends OncePerRequestFilter {
+
+    private static final Set<String> CACHED_PATHS = new HashSet<>(Arrays.asList("/", "/index", "/articles"));
+    //the cache key, requests with other parameters are not cached
+    private static final List<String> KEY_PARAMETERS = Arrays.asList("page", "pageSize", "cursor", "category");
+    //key of the first dispatch, the async dispatch stores the page under it
+    private static final String KEY_ATTRIBUTE = PageCacheFilter.class.getName() + ".KEY";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !CACHED_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()))
+                || !KEY_PARAMETERS.containsAll(request.getParameterMap().keySet())
+                || request.getSession(false) != null;
+    }
+
+    /**
+     * the page of an async request is complete after the async dispatch
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Cache cache = cacheManager.getCache(PAGE_CACHE);
+        if (isAsyncDispatch(request)) {
+            filterAndCache(request, response, filterChain, cache, (String) request.getAttribute(KEY_ATTRIBUTE));
+            return;
+        }
+        String key = key(request, articleService.getLastModified());
+        RenderedPage page = cache.get(key, RenderedPage.class);
+        if (page != null) {
+            //the same validators as the controller, see ConditionalRequests
+            if (page.cacheControl != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, page.cacheControl);
+            }
+            if (page.etag != null
+                    && new ServletWebRequest(request, response).checkNotModified(page.etag, page.lastModified)) {
+                return;
+            }
+            response.setContentType(page.contentType);
+            response.setContentLength(page.body.length);
+            response.getOutputStream().write(page.body);
+            return;
+        }
+        request.setAttribute(KEY_ATTRIBUTE, key);
+        request.setAttribute(PrimaryStickinessInterceptor.READ_FROM_PRIMARY, Boolean.TRUE);
+        filterAndCache(request, response, filterChain, cache, key);
+    }
+
+    private void filterAndCache(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                                Cache cache, String key) throws ServletException, IOException {
+        //an async dispatch gets the wrapper of the first dispatch, see ReadExecutor
+        ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (wrapper == null) {
+            wrapper = new ContentCachingResponseWrapper(response);
+        }
+        filterChain.doFilter(request, wrapper);
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && request.getSession(false) == null) {
+            cache.put(key, new RenderedPage(wrapper));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * @param lastModified  watermark of the articles before the page is rendered
+     * @return              watermark, path and the pagination parameters
+     */
+    private static String key(HttpServletRequest request, long lastModified) {
+        StringBuilder key = new StringBuilder().append(lastModified).append(':').append(request.getRequestURI());
+        for (String name : KEY_PARAMETERS) {
+            String value = request.getParameter(name);
+            key.append(':').append(value != null ? value : "");
+        }
+        return key.toString();
+    }
+
+    private static final class RenderedPage implements Serializable {
+
+        private final String contentType;
+        private final byte[] body;
+        private final String etag;
+        private final long lastModified;
+        private final String cacheControl;
+
+        private RenderedPage(ContentCachingResponseWrapper response) {
+            this.contentType = response.getContentType();
+            this.body = response.getContentAsByteArray();
+            this.etag = response.getHeader(HttpHeaders.ETAG);
+            this.cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+            HttpHeaders headers = new HttpHeaders();
+            String lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+            if (lastModified != null) {
+                headers.set(HttpHeaders.LAST_MODIFIED, lastModified);
+            }
+            this.lastModified = headers.getLastModified();
+        }
+    }
+}
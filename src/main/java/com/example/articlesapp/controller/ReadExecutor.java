@@ -0,0 +1,105 @@
+package com.example.articlesapp.controller;
+
+import com.example.articlesapp.datasource.ReplicaRoutingDataSource;
+import com.example.articlesapp.monitoring.StatementCountFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * runs the database work of the read endpoints
+ * with articles.async.enabled the work runs on a bounded pool and the Tomcat worker thread is released
+ * while it waits for JDBC; otherwise it runs on the request thread
+ * a full queue rejects the request, see ExceptionController
+ *
+ * @author platoiscoding.com
+ */
+@Component
+public class ReadExecutor {
+
+    @Value("${articles.async.enabled:false}")
+    private boolean enabled;
+
+    //about the size of the connection pool, more threads would only wait for connections
+    @Value("${articles.async.pool-size:10}")
+    private int poolSize;
+
+    @Value("${articles.async.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setThreadNamePrefix("article-read-");
+            executor.setCorePoolSize(poolSize);
+            executor.setMaxPoolSize(poolSize);
+            executor.setQueueCapacity(queueCapacity);
+            executor.initialize();
+            //executor.active and executor.queued, tagged name=articles.reads
+            new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "articles.reads", Tags.empty())
+                    .bindTo(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @param read      database work and model of the response
+     * @return          completes with the result of read on the pool, or right away if async is disabled
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> read) {
+        if (executor == null) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                future.complete(read.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                .getRequest();
+        boolean primaryForced = ReplicaRoutingDataSource.isPrimaryForced();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            StatementCountFilter.startCounting();
+            ReplicaRoutingDataSource.forcePrimary(primaryForced);
+            try {
+                T result = read.get();
+                //counted before the response is dispatched
+                StatementCountFilter.addCounts(request);
+                future.complete(result);
+            } catch (RuntimeException e) {
+                StatementCountFilter.addCounts(request);
+                future.completeExceptionally(e);
+            } finally {
+                ReplicaRoutingDataSource.forcePrimary(false);
+            }
+        });
+        return future;
+    }
+}
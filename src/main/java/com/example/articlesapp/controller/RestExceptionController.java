@@ -0,0 +1,57 @@
+package com.example.articlesapp.controller;
+
+import com.example.articlesapp.exception.BadRequestException;
+import com.example.articlesapp.exception.DuplicateArticleException;
+import com.example.articlesapp.exception.ResourceNotFoundException;
+import com.example.articlesapp.exception.StaleArticleException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * JSON error responses for the api; ExceptionController renders the errorView for all other controllers
+ */
+@RestControllerAdvice(assignableTypes = ArticleRestController.class)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RestExceptionController {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> resourceNotFound(ResourceNotFoundException exception) {
+        return error(HttpStatus.NOT_FOUND, exception.getMessage());
+    }
+
+    @ExceptionHandler({BadRequestException.class, NumberFormatException.class, IllegalArgumentException.class})
+    public ResponseEntity<Map<String, Object>> badRequest(Exception exception) {
+        return error(HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler({DuplicateArticleException.class, StaleArticleException.class})
+    public ResponseEntity<Map<String, Object>> conflict(RuntimeException exception) {
+        return error(HttpStatus.CONFLICT, exception.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, Object>> invalid(MethodArgumentNotValidException exception) {
+        String message = exception.getBindingResult().getFieldErrors().stream()
+                .map(FieldError::getDefaultMessage)
+                .collect(Collectors.joining(" "));
+        return error(HttpStatus.BAD_REQUEST, message);
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        return ResponseEntity.status(status).body(body);
+    }
+}
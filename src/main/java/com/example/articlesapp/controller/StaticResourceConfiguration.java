@@ -0,0 +1,94 @@
+package com.example.articlesapp.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ResourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * serves the static resources under fingerprinted URLs: links written with @{...} in the templates
+ * become e.g. /img/pexels/background3-&lt;md5 of the content&gt;.jpg, which browsers and CDNs may keep for a year.
+ * Unversioned URLs are revalidated on every use. The .gz files written by StaticAssetBuilder are
+ * served to clients that accept gzip.
+ * spring.resources.add-mappings stays false, other URLs still end in NoHandlerFoundException.
+ * Left out without a web server, e.g. in the benchmarks
+ *
+ * @author platoiscoding.com
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+
+    //directories of the static locations that are served
+    private static final String[] DIRECTORIES = {"img", "css", "js", "demo"};
+    private static final String[] PATHS = Arrays.stream(DIRECTORIES).map(directory -> "/" + directory + "/**")
+            .toArray(String[]::new);
+    private static final long IMMUTABLE_SECONDS = TimeUnit.DAYS.toSeconds(365);
+    //content version added by VersionResourceResolver, an MD5 in hex before the extension
+    private static final Pattern FINGERPRINT = Pattern.compile("-[0-9a-f]{32}\\.[^/]+$");
+
+    @Autowired
+    private ResourceProperties resourceProperties;
+
+    /**
+     * the path below a pattern is resolved against the locations, so every directory has its own handler
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String directory : DIRECTORIES) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations(Arrays.stream(resourceProperties.getStaticLocations())
+                            .map(location -> location + directory + "/")
+                            .toArray(String[]::new))
+                    //resolved paths and versions are computed once per resource
+                    .resourceChain(resourceProperties.getChain().isCache())
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    /**
+     * Spring 5.1 has no CacheControl.immutable(), so the header is set before the resource handler,
+     * which leaves it as it is
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptorAdapter() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, FINGERPRINT.matcher(request.getRequestURI()).find()
+                        ? "public, max-age=" + IMMUTABLE_SECONDS + ", immutable"
+                        : "no-cache");
+                return true;
+            }
+        }).addPathPatterns(PATHS);
+    }
+
+    /**
+     * @return  rewrites the links of the templates to their fingerprinted URLs, also in async dispatches
+     */
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        FilterRegistrationBean<ResourceUrlEncodingFilter> registration =
+                new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR);
+        return registration;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.articlesapp.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * read-your-writes: a client that just wrote reads from the primary until the replicas caught up
+ * every write request gets a cookie that routes the client's reads to the primary for sticky-seconds,
+ * e.g. the redirect to '/article/{id}' after an update
+ * requests with the READ_FROM_PRIMARY attribute read from the primary as well
+ *
+ * @author platoiscoding.com
+ */
+public class PrimaryStickinessInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String COOKIE = "articles-primary-until";
+    //set by filters that cache the response for all clients, see PageCacheFilter
+    public static final String READ_FROM_PRIMARY = PrimaryStickinessInterceptor.class.getName() + ".READ_FROM_PRIMARY";
+
+    @Value("${articles.datasource.sticky-seconds:5}")
+    private int stickySeconds;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            long until = System.currentTimeMillis() + stickySeconds * 1000L;
+            Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+            cookie.setPath("/");
+            cookie.setMaxAge(stickySeconds);
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+            ReplicaRoutingDataSource.forcePrimary(true);
+        } else {
+            ReplicaRoutingDataSource.forcePrimary(request.getAttribute(READ_FROM_PRIMARY) != null
+                    || stickyUntil(request) > System.currentTimeMillis());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReplicaRoutingDataSource.forcePrimary(false);
+    }
+
+    /**
+     * the async dispatch decides again, see ReadExecutor for the thread in between
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReplicaRoutingDataSource.forcePrimary(false);
+    }
+
+    private static long stickyUntil(HttpServletRequest request) {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.articlesapp.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * primary pool from spring.datasource.*, one replica pool per articles.datasource.replica-urls
+ * replicas use the credentials of the primary and are expected to be replicated from it
+ * without replica-urls the auto-configured DataSource is used
+ *
+ * @author platoiscoding.com
+ */
+@Configuration
+@ConditionalOnProperty("articles.datasource.replica-urls")
+public class ReplicaRoutingConfiguration implements WebMvcConfigurer, DisposableBean {
+
+    @Value("${articles.datasource.replica-urls}")
+    private String[] replicaUrls;
+
+    @Value("${articles.datasource.replica-pool-size:10}")
+    private int replicaPoolSize;
+
+    //the DataSource bean is the proxy, which does not close the pools behind it
+    private ReplicaRoutingDataSource routingDataSource;
+
+    /**
+     * @param properties    spring.datasource.*
+     * @return              routes read-only transactions to the replicas
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource primary = pool(properties, properties.determineUrl(), "primary");
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = pool(properties, replicaUrls[i].trim(), "replica-" + i);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * runs after the dataSource bean is destroyed, it depends on this configuration
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (routingDataSource != null) {
+            routingDataSource.destroy();
+        }
+    }
+
+    @Bean
+    public PrimaryStickinessInterceptor primaryStickinessInterceptor() {
+        return new PrimaryStickinessInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(primaryStickinessInterceptor());
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String url, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        pool.setPoolName(name);
+        //hikaricp.* tagged pool=<name>; the MeterRegistry does not exist yet
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(Metrics.globalRegistry));
+        return pool;
+    }
+}
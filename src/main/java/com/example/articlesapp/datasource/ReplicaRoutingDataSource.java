@@ -0,0 +1,101 @@
+package com.example.articlesapp.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * sends read-only transactions to the replicas, round robin, and everything else to the primary
+ * must be wrapped in a LazyConnectionDataSourceProxy: the read-only flag of a transaction
+ * is known only after it began, so the connection has to be fetched with the first statement
+ *
+ * @author platoiscoding.com
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+
+    //read-your-writes, see PrimaryStickinessInterceptor
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = ThreadLocal.withInitial(() -> false);
+
+    private final List<DataSource> targets = new ArrayList<>();
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * @param primary       receives all writes and the reads outside of read-only transactions
+     * @param replicas      receive the read-only transactions
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaKeys.add("replica-" + i);
+            targets.put(replicaKeys.get(i), replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.targets.add(primary);
+        this.targets.addAll(replicas);
+    }
+
+    /**
+     * closes the pools of the primary and the replicas
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource target : targets) {
+            if (target instanceof AutoCloseable) {
+                ((AutoCloseable) target).close();
+            }
+        }
+    }
+
+    /**
+     * @param forced    true: read-only transactions of the current thread go to the primary as well
+     */
+    public static void forcePrimary(boolean forced) {
+        PRIMARY_FORCED.set(forced);
+    }
+
+    /**
+     * @return          true if the current thread reads from the primary
+     */
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get();
+    }
+
+    /**
+     * for reads that fill a cache shared by all clients: read from a replica, the cache would keep
+     * what the replica had not received yet long after it caught up
+     * @param read      runs with the read-only transactions of the current thread on the primary
+     * @return          result of read
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        boolean forced = isPrimaryForced();
+        forcePrimary(true);
+        try {
+            return read.get();
+        } finally {
+            forcePrimary(forced);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty() || isPrimaryForced()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+}
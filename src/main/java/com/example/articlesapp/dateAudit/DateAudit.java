@@ -33,6 +33,11 @@ public abstract class DateAudit implements Serializable {
     @LastModifiedDate
     private Date updatedAt;
 
+    //incremented by every update; an update based on an older version fails instead of overwriting
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public Date getCreatedAt() {
         return createdAt;
     }
@@ -48,4 +53,12 @@ public abstract class DateAudit implements Serializable {
     public void setUpdatedAt(Date updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
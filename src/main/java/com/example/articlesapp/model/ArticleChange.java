@@ -0,0 +1,65 @@
+package com.example.articlesapp.model;
+
+import java.util.Date;
+
+/**
+ * one entry of the change feed
+ * an article that was changed several times since the token is in the feed once, with its current state
+ *
+ * @author platoiscoding.com
+ */
+public class ArticleChange {
+
+    public enum Type { UPSERT, DELETE }
+
+    private final Type type;
+    private final long articleId;
+    private final Date changedAt;
+    private final Article article;          //with content; null for DELETE
+
+    private ArticleChange(Type type, long articleId, Date changedAt, Article article) {
+        this.type = type;
+        this.articleId = articleId;
+        this.changedAt = changedAt;
+        this.article = article;
+    }
+
+    /**
+     * @param article   created or updated article
+     * @return          change at the article's updatedAt
+     */
+    public static ArticleChange upsert(Article article) {
+        return new ArticleChange(Type.UPSERT, article.getArticleId(), article.getUpdatedAt(), article);
+    }
+
+    /**
+     * @param tombstone deleted article
+     * @return          change at the time of the deletion
+     */
+    public static ArticleChange delete(ArticleTombstone tombstone) {
+        return new ArticleChange(Type.DELETE, tombstone.getArticleId(), tombstone.getDeletedAt(), null);
+    }
+
+    /**
+     * @return  token that continues the feed after this change
+     */
+    public ChangeToken token() {
+        return new ChangeToken(changedAt, articleId);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+
+    public Date getChangedAt() {
+        return changedAt;
+    }
+
+    public Article getArticle() {
+        return article;
+    }
+}
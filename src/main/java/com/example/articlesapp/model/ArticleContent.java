@@ -0,0 +1,72 @@
+package com.example.articlesapp.model;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+
+/**
+ * the body of an article, kept out of the articles row so that listings and
+ * the duplicate check do not read it; shares the primary key of its article
+ * @author platoiscoding.com
+ */
+@Entity
+@Table(name="article_contents")
+public class ArticleContent {
+
+    @Id
+    @Column(name="article_id")
+    private long articleId;
+
+    //deleting the article deletes the content in the database, no extra statement
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name="article_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Article article;
+
+    //UTF-8 bytes, gzipped from articles.content.compression-min-bytes on
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name="content", nullable = false)
+    private String content;
+
+    //content rendered by ArticleBodyRenderer when it is saved; null for articles saved before
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name="html")
+    private String html;
+
+    public ArticleContent() {
+    }
+
+    public ArticleContent(Article article, String content, String html) {
+        this.article = article;
+        this.content = content;
+        this.html = html;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+
+    public Article getArticle() {
+        return article;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public void setHtml(String html) {
+        this.html = html;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.articlesapp.model;
+
+import com.example.articlesapp.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * position in the listing for keyset pagination
+ * articles are ordered by (updatedAt DESC, articleId DESC); a cursor points
+ * at the last article of a page (NEXT) or the first article of a page (PREVIOUS)
+ *
+ * the encoded token is opaque to the client and only used as url parameter
+ *
+ * @author platoiscoding.com
+ */
+public class ArticleCursor {
+
+    public enum Direction { NEXT, PREVIOUS }
+
+    private static final String SEPARATOR = ":";
+
+    private final Direction direction;
+    private final int page;                 //number of the page the cursor leads to
+    private final Date updatedAt;
+    private final long articleId;
+
+    public ArticleCursor(Direction direction, int page, Date updatedAt, long articleId) {
+        this.direction = direction;
+        this.page = page;
+        this.updatedAt = updatedAt;
+        this.articleId = articleId;
+    }
+
+    /**
+     * @param last  last article of the current page
+     * @param page  number of the current page
+     * @return      cursor to the following page
+     */
+    public static ArticleCursor next(ArticleSummary last, int page) {
+        return new ArticleCursor(Direction.NEXT, page + 1, last.getUpdatedAt(), last.getArticleId());
+    }
+
+    /**
+     * @param first first article of the current page
+     * @param page  number of the current page
+     * @return      cursor to the preceding page
+     */
+    public static ArticleCursor previous(ArticleSummary first, int page) {
+        return new ArticleCursor(Direction.PREVIOUS, page - 1, first.getUpdatedAt(), first.getArticleId());
+    }
+
+    /**
+     * @return url safe token
+     */
+    public String encode() {
+        String value = direction.name().charAt(0) + SEPARATOR + page + SEPARATOR
+                + updatedAt.getTime() + SEPARATOR + articleId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token url parameter created by encode()
+     * @return      cursor
+     * @throws BadRequestException if the token was not created by encode()
+     */
+    public static ArticleCursor decode(String token) {
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARATOR);
+            if (values.length != 4) {
+                throw new BadRequestException("Invalid cursor: " + token);
+            }
+            Direction direction = "P".equals(values[0]) ? Direction.PREVIOUS : Direction.NEXT;
+            return new ArticleCursor(direction, Integer.parseInt(values[1]),
+                    new Date(Long.parseLong(values[2])), Long.parseLong(values[3]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+}
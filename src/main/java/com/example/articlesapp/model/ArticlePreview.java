@@ -0,0 +1,12 @@
+package com.example.articlesapp.model;
+
+/**
+ * read-only projection of an article with the description but without the content
+ * used by the index page
+ *
+ * @author platoiscoding.com
+ */
+public interface ArticlePreview extends ArticleSummary {
+
+    String getDescription();
+}
@@ -0,0 +1,24 @@
+package com.example.articlesapp.model;
+
+import java.util.Date;
+
+/**
+ * read-only projection of an article without the @Lob columns
+ * used by the table in '/articles'
+ *
+ * @author platoiscoding.com
+ */
+public interface ArticleSummary {
+
+    long getArticleId();
+
+    String getTitle();
+
+    String getCategory();
+
+    String getAuthor();
+
+    Date getCreatedAt();
+
+    Date getUpdatedAt();
+}
@@ -0,0 +1,38 @@
+package com.example.articlesapp.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+/**
+ * a deleted article, written by ArticleServiceImpl.deleteArticle() so that
+ * the change feed can tell its consumers about the deletion
+ * @author platoiscoding.com
+ */
+@Entity
+@Table(name="article_tombstones", indexes = {
+        @Index(name = "idx_article_tombstones_deleted_at", columnList = "deleted_at, article_id")
+})
+public class ArticleTombstone {
+
+    @Id
+    @Column(name="article_id")
+    private long articleId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name="deleted_at", nullable = false)
+    private Date deletedAt;
+
+    public long getArticleId() {
+        return articleId;
+    }
+
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+}
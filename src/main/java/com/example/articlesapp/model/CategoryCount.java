@@ -0,0 +1,31 @@
+package com.example.articlesapp.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * number of articles in a category, kept up to date by ArticleServiceImpl on every write
+ * so that the category sidebar needs no GROUP BY over the articles
+ * @author platoiscoding.com
+ */
+@Entity
+@Table(name="category_counts")
+public class CategoryCount {
+
+    @Id
+    @Column(name="category")
+    private String category;
+
+    @Column(name="article_count", nullable = false)
+    private long count;
+
+    public String getCategory() {
+        return category;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
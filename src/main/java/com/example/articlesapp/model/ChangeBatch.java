@@ -0,0 +1,38 @@
+package com.example.articlesapp.model;
+
+import java.util.List;
+
+/**
+ * one batch of the change feed, ordered by (changedAt, articleId)
+ * the client stores nextToken and asks for the following batch with it;
+ * an empty batch keeps the token of the request
+ *
+ * @author platoiscoding.com
+ */
+public class ChangeBatch {
+
+    private final List<ArticleChange> changes;
+    private final String nextToken;
+    private final boolean hasMore;
+
+    public ChangeBatch(List<ArticleChange> changes, ChangeToken since, boolean hasMore) {
+        this.changes = changes;
+        this.nextToken = (changes.isEmpty() ? since : changes.get(changes.size() - 1).token()).encode();
+        this.hasMore = hasMore;
+    }
+
+    public List<ArticleChange> getChanges() {
+        return changes;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * @return  true if the following batch can be asked for right away
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.articlesapp.model;
+
+import com.example.articlesapp.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * position in the change feed: the last change a client has seen
+ * changes are ordered by (changedAt, articleId), the feed continues after the token
+ *
+ * the encoded token is opaque to the client and only used as url parameter
+ *
+ * @author platoiscoding.com
+ */
+public class ChangeToken {
+
+    //before all changes
+    public static final ChangeToken START = new ChangeToken(new Date(0), 0);
+
+    private static final String SEPARATOR = ":";
+
+    private final Date changedAt;
+    private final long articleId;
+
+    public ChangeToken(Date changedAt, long articleId) {
+        this.changedAt = changedAt;
+        this.articleId = articleId;
+    }
+
+    /**
+     * @return url safe token
+     */
+    public String encode() {
+        String value = changedAt.getTime() + SEPARATOR + articleId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token url parameter created by encode(); null or empty for the start of the feed
+     * @return      token
+     * @throws BadRequestException if the token was not created by encode()
+     */
+    public static ChangeToken decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return START;
+        }
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARATOR);
+            if (values.length != 2) {
+                throw new BadRequestException("Invalid change token: " + token);
+            }
+            return new ChangeToken(new Date(Long.parseLong(values[0])), Long.parseLong(values[1]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid change token: " + token, e);
+        }
+    }
+
+    public Date getChangedAt() {
+        return changedAt;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.articlesapp.model;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.persistence.AttributeConverter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * stores text as UTF-8 bytes, gzipped from a size on; reads both forms, so rows
+ * written without compression (the demo articles, split-article-content.mysql.sql, an earlier setting) stay readable.
+ * Created by Hibernate through the Spring bean container, configured by 'Content Properties'
+ * @author platoiscoding.com
+ */
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    //first bytes of every gzip stream; UTF-8 text never starts with them
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+
+    @Value("${articles.content.compression-enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${articles.content.compression-min-bytes:512}")
+    private int minBytes = 512;
+
+    @Value("${articles.content.compression-level:6}")
+    private int level = 6;
+
+    public CompressedTextConverter() {
+    }
+
+    /**
+     * @param minBytes  texts with fewer UTF-8 bytes are stored as they are
+     * @param level     deflate level, 1 (fastest) to 9 (smallest)
+     */
+    public CompressedTextConverter(int minBytes, int level) {
+        this.minBytes = minBytes;
+        this.level = level;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (!enabled || bytes.length < minBytes) {
+            return bytes;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2);
+        try (OutputStream gzip = new LeveledGZIPOutputStream(compressed, level)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        //incompressible text is kept as it is
+        return compressed.size() < bytes.length ? compressed.toByteArray() : bytes;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (!isGzip(bytes)) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream text = new ByteArrayOutputStream(bytes.length * 3);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                text.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(text.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static boolean isGzip(byte[] bytes) {
+        return bytes.length > 2 && (bytes[0] & 0xff) == GZIP_MAGIC_1 && (bytes[1] & 0xff) == GZIP_MAGIC_2;
+    }
+
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
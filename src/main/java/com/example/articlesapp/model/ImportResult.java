@@ -0,0 +1,60 @@
+package com.example.articlesapp.model;
+
+/**
+ * counts of a bulk import
+ *
+ * @author platoiscoding.com
+ */
+public class ImportResult {
+
+    private long read;              //rows in the input
+    private long imported;          //rows saved
+    private long invalid;           //rows rejected by validation
+    private long duplicates;        //rows whose title and author were taken
+    private long millis;            //duration of the import
+
+    public long getRead() {
+        return read;
+    }
+    public void addRead(long count) {
+        this.read += count;
+    }
+    public long getImported() {
+        return imported;
+    }
+    public void addImported(long count) {
+        this.imported += count;
+    }
+    public long getInvalid() {
+        return invalid;
+    }
+    public void addInvalid(long count) {
+        this.invalid += count;
+    }
+    public long getDuplicates() {
+        return duplicates;
+    }
+    public void addDuplicates(long count) {
+        this.duplicates += count;
+    }
+    public long getMillis() {
+        return millis;
+    }
+    public void setMillis(long millis) {
+        this.millis = millis;
+    }
+
+    /**
+     * @return imported rows per second
+     */
+    public double getRowsPerSecond() {
+        return millis == 0 ? imported : imported * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return "Import [read=" + read + ", imported=" + imported + ", invalid=" + invalid
+                + ", duplicates=" + duplicates + ", millis=" + millis
+                + ", rowsPerSecond=" + String.format("%.1f", getRowsPerSecond()) + "]";
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.articlesapp.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * one page of keyset pagination
+ * unlike org.springframework.data.domain.Page it has no total count,
+ * the neighbouring pages are reached with the encoded cursors
+ *
+ * @author platoiscoding.com
+ */
+@JsonFormat(shape = JsonFormat.Shape.OBJECT)     //not a JSON array although it is Iterable
+public class KeysetPage<T extends ArticleSummary> implements Iterable<T> {
+
+    private final List<T> content;
+    private final int number;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    public KeysetPage(List<T> content, int number, boolean hasNext, boolean hasPrevious) {
+        this.content = content;
+        this.number = number;
+        this.nextCursor = hasNext && !content.isEmpty()
+                ? ArticleCursor.next(content.get(content.size() - 1), number).encode() : null;
+        this.previousCursor = hasPrevious && !content.isEmpty()
+                ? ArticleCursor.previous(content.get(0), number).encode() : null;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return number of the current page, starting with 0
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return content.iterator();
+    }
+}
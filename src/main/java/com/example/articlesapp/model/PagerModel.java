@@ -9,11 +9,23 @@ package com.example.articlesapp.model;
 public class PagerModel {
 
     private int buttonsToShow = 5;
+    private int totalPages;
     private int startPage;
     private int endPage;
 
+    /**
+     * @param totalElements     number of articles; may be cached or approximate
+     * @param pageSize          number of articles per page
+     * @param currentPage       number of the current page, starting with 0
+     * @param buttonsToShow     odd number of page buttons
+     */
+    public PagerModel(long totalElements, int pageSize, int currentPage, int buttonsToShow) {
+        this((int) ((totalElements + pageSize - 1) / pageSize), currentPage, buttonsToShow);
+    }
+
     public PagerModel(int totalPages, int currentPage, int buttonsToShow) {
 
+        setTotalPages(totalPages);
         setButtonsToShow(buttonsToShow);
         int halfPagesToShow = getButtonsToShow() / 2;
 
@@ -45,6 +57,12 @@ public class PagerModel {
             throw new IllegalArgumentException("Must be an odd value!");
         }
     }
+    public int getTotalPages() {
+        return totalPages;
+    }
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
     public int getStartPage() {
         return startPage;
     }
@@ -0,0 +1,47 @@
+package com.example.articlesapp.model;
+
+import java.util.Date;
+
+/**
+ * article found by the full-text search
+ * all values come from the search index, not from the database
+ *
+ * @author platoiscoding.com
+ */
+public class SearchHit {
+
+    private long articleId;
+    private String title;
+    private String category;
+    private String author;
+    private Date updatedAt;
+    private String fragment;        //escaped HTML, matches are wrapped in <mark>
+
+    public SearchHit(long articleId, String title, String category, String author, Date updatedAt, String fragment) {
+        this.articleId = articleId;
+        this.title = title;
+        this.category = category;
+        this.author = author;
+        this.updatedAt = updatedAt;
+        this.fragment = fragment;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+    public String getTitle() {
+        return title;
+    }
+    public String getCategory() {
+        return category;
+    }
+    public String getAuthor() {
+        return author;
+    }
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+    public String getFragment() {
+        return fragment;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.articlesapp.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * times every JDBC execution, counts the fetched rows and logs a sample of the slow statements
+ * replaces show-sql, which logs every statement synchronously
+ *
+ * meters are registered in the global registry, the DataSource is created before the MeterRegistry
+ *
+ * @author platoiscoding.com
+ */
+public class MonitoredDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitoredDataSource.class);
+
+    private final Timer executions = Metrics.timer("articles.jdbc.execute");
+    private final Counter slowExecutions = Metrics.counter("articles.jdbc.slow");
+
+    private final long slowNanos;
+    private final double sampleRate;
+
+    /**
+     * @param target            pooled DataSource
+     * @param slowMillis        executions taking at least this long count as slow
+     * @param sampleRate        share of the slow executions that are logged, 0 to 1
+     */
+    public MonitoredDataSource(DataSource target, long slowMillis, double sampleRate) {
+        super(target);
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return statement(method.getReturnType(), (Statement) result, sql);
+            }
+            return result;
+        });
+    }
+
+    private Object statement(Class<?> type, Statement target, String preparedSql) {
+        return proxy(type, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return resultSet(invoke(target, method, args));
+            }
+            long start = System.nanoTime();
+            try {
+                return resultSet(invoke(target, method, args));
+            } finally {
+                long nanos = System.nanoTime() - start;
+                executions.record(nanos, TimeUnit.NANOSECONDS);
+                if (nanos >= slowNanos) {
+                    slowExecutions.increment();
+                    if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                        String sql = preparedSql != null || args == null ? preparedSql : String.valueOf(args[0]);
+                        logger.warn("slow SQL statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), sql);
+                    }
+                }
+            }
+        });
+    }
+
+    private Object resultSet(Object result) {
+        if (!(result instanceof ResultSet)) {
+            return result;
+        }
+        ResultSet target = (ResultSet) result;
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object value = invoke(target, method, args);
+            if (Boolean.TRUE.equals(value) && method.getName().equals("next")) {
+                RowCounter.increment();
+            }
+            return value;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(MonitoredDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
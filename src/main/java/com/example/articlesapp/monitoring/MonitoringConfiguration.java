@@ -0,0 +1,46 @@
+package com.example.articlesapp.monitoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * wires the JDBC and view metrics, see application.properties 'Monitoring Properties'
+ *
+ * @author platoiscoding.com
+ */
+@Configuration
+public class MonitoringConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    private ViewRenderTimingInterceptor viewRenderTimingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(viewRenderTimingInterceptor);
+    }
+
+    /**
+     * @param environment   for the slow statement settings
+     * @return              wraps the DataSource into a MonitoredDataSource
+     */
+    @Bean
+    public static BeanPostProcessor monitoredDataSourcePostProcessor(Environment environment) {
+        long slowMillis = environment.getProperty("articles.monitoring.slow-query-ms", Long.class, 250L);
+        double sampleRate = environment.getProperty("articles.monitoring.slow-query-sample-rate", Double.class, 1.0);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource && !(bean instanceof MonitoredDataSource)
+                        ? new MonitoredDataSource((DataSource) bean, slowMillis, sampleRate)
+                        : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.articlesapp.monitoring;
+
+/**
+ * counts the rows read from JDBC result sets on the current thread
+ * incremented by MonitoredDataSource
+ *
+ * @author platoiscoding.com
+ */
+public final class RowCounter {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private RowCounter() {
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+
+    /**
+     * starts counting from 0 on the current thread
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return number of rows read on the current thread since the last reset()
+     */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
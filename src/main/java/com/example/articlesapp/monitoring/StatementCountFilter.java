@@ -0,0 +1,110 @@
+package com.example.articlesapp.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * counts the SQL statements and the fetched rows of each request
+ * the counts are stored as request attributes STATEMENT_COUNT and ROW_COUNT, logged on DEBUG level
+ * and recorded as 'articles.request.statements' and 'articles.request.rows', tagged by URI pattern
+ *
+ * @author platoiscoding.com
+ */
+@Component
+//outside of PageCacheFilter, cached pages count with 0 statements
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT = "sqlStatementCount";
+    public static final String ROW_COUNT = "sqlRowCount";
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCountFilter.class);
+
+    //totals of all threads that worked on the request, see ReadExecutor
+    private static final String COUNTS = StatementCountFilter.class.getName() + ".counts";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * starts counting from 0 on the current thread
+     */
+    public static void startCounting() {
+        StatementCounter.reset();
+        RowCounter.reset();
+    }
+
+    /**
+     * adds the counts of the current thread to the totals of the request
+     * @param request   request the current thread worked on
+     */
+    public static void addCounts(HttpServletRequest request) {
+        Counts counts = (Counts) request.getAttribute(COUNTS);
+        if (counts != null) {
+            counts.statements.addAndGet(StatementCounter.count());
+            counts.rows.addAndGet(RowCounter.count());
+        }
+    }
+
+    /**
+     * async requests are counted over both dispatches
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (request.getAttribute(COUNTS) == null) {
+            request.setAttribute(COUNTS, new Counts());
+        }
+        startCounting();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            addCounts(request);
+            if (!isAsyncStarted(request)) {
+                record(request);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request) {
+        Counts counts = (Counts) request.getAttribute(COUNTS);
+        int statements = counts.statements.get();
+        int rows = counts.rows.get();
+        request.setAttribute(STATEMENT_COUNT, statements);
+        request.setAttribute(ROW_COUNT, rows);
+        logger.debug("{} {}: {} SQL statements, {} rows", request.getMethod(), request.getRequestURI(),
+                statements, rows);
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("articles.request.statements").tag("uri", uri)
+                .register(meterRegistry).record(statements);
+        DistributionSummary.builder("articles.request.rows").tag("uri", uri)
+                .register(meterRegistry).record(rows);
+    }
+
+    private static final class Counts {
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicInteger rows = new AtomicInteger();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.articlesapp.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * counts the SQL statements Hibernate prepares on the current thread
+ * registered by spring.jpa.properties.hibernate.session_factory.statement_inspector
+ *
+ * @author platoiscoding.com
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * @param sql   statement prepared by Hibernate
+     * @return      the unchanged statement
+     */
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * starts counting from 0 on the current thread
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return number of statements on the current thread since the last reset()
+     */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.articlesapp.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * times the Thymeleaf rendering of each view as 'articles.view.render', tagged by view name
+ * rendering happens between postHandle and afterCompletion
+ *
+ * @author platoiscoding.com
+ */
+@Component
+public class ViewRenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String RENDER_START = ViewRenderTimingInterceptor.class.getName() + ".start";
+    private static final String RENDER_VIEW = ViewRenderTimingInterceptor.class.getName() + ".view";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(RENDER_VIEW, modelAndView.getViewName());
+            request.setAttribute(RENDER_START, Timer.start(meterRegistry));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Timer.Sample sample = (Timer.Sample) request.getAttribute(RENDER_START);
+        if (sample != null) {
+            sample.stop(Timer.builder("articles.view.render")
+                    .tag("view", (String) request.getAttribute(RENDER_VIEW))
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.articlesapp.repository;
+
+import com.example.articlesapp.model.ArticleContent;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+/**
+ * @author platoiscoding.com
+ */
+@Repository
+public interface ArticleContentRepository extends CrudRepository<ArticleContent, Long> {
+    //rows per round trip when streaming; MySQL needs useCursorFetch=true to honour it
+    String STREAM_FETCH_SIZE = "100";
+
+    /**
+     * articles without a content row are returned with null as content;
+     * must be consumed inside a transaction and closed afterwards
+     * @return              pairs of Article and content, fetched in chunks of STREAM_FETCH_SIZE rows
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT a, c.content FROM Article a LEFT JOIN ArticleContent c ON c.articleId = a.articleId")
+    Stream<Object[]> streamAllWithContent();
+
+    /**
+     * @param id            articleId
+     * @return              the body, empty if the article has no content row
+     */
+    @Query("SELECT c.content FROM ArticleContent c WHERE c.articleId = :id")
+    Optional<String> findContentByArticleId(@Param("id") long id);
+
+    /**
+     * @param id            articleId
+     * @return              the body rendered by ArticleBodyRenderer, empty if the article has no content row
+     *                      or was saved before the html column
+     */
+    @Query("SELECT c.html FROM ArticleContent c WHERE c.articleId = :id")
+    Optional<String> findHtmlByArticleId(@Param("id") long id);
+
+    /**
+     * @param id            articleId
+     * @param content       new body
+     * @param html          new body rendered by ArticleBodyRenderer
+     * @return              number of updated rows, 0 if the article has no content row
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ArticleContent c SET c.content = :content, c.html = :html WHERE c.articleId = :id")
+    int updateContent(@Param("id") long id, @Param("content") String content, @Param("html") String html);
+}
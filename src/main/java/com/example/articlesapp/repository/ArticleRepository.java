@@ -1,15 +1,22 @@
 package com.example.articlesapp.repository;
 
 import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.ArticleSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author platoiscoding.com
@@ -17,19 +24,92 @@ import java.util.List;
 @Repository
 public interface ArticleRepository extends PagingAndSortingRepository<Article, Long> {
     /**
-     * @return newest articleId
+     * uses the primary key index, reads only as many rows as requested
+     * @param pageable  number of articles
+     * @return          newest articles first
      */
-    @Query(value = "SELECT MAX(id) FROM Article")
-    Long findTopByOrderByIdDesc();
+    List<Article> findAllByOrderByArticleIdDesc(Pageable pageable);
 
     /**
+     * updates all editable columns of the articles row with one statement, the content is in article_contents
+     * and increments the version
+     * @param id            articleId
+     * @param updatedAt     new value of updated_at
+     * @param version       version the update is based on
+     * @return              number of updated rows, 0 if the article has another version
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Article a SET a.title = :title, a.category = :category, a.author = :author, " +
+            "a.description = :description, a.updatedAt = :updatedAt, a.version = a.version + 1 " +
+            "WHERE a.articleId = :id AND a.version = :version")
+    int updateById(@Param("id") long id, @Param("title") String title, @Param("category") String category,
+                   @Param("author") String author, @Param("description") String description,
+                   @Param("updatedAt") Date updatedAt, @Param("version") long version);
+
+    /**
+     * reads without locking; an update of the same version replaces this category
+     * @param id            articleId
+     * @return              category of the article, empty if there is no article with the id
+     */
+    @Query("SELECT a.category FROM Article a WHERE a.articleId = :id")
+    Optional<String> findCategoryByArticleId(@Param("id") long id);
+
+    /**
+     * locks the row until the end of the transaction, so that the category counts
+     * see the category that is deleted
+     * @param id            articleId
+     * @return              category of the article, empty if there is no article with the id
+     */
+    @Query(value = "SELECT category FROM articles WHERE article_id = :id FOR UPDATE", nativeQuery = true)
+    Optional<String> findCategoryForUpdate(@Param("id") long id);
+
+    /**
+     * deletes with one statement instead of find + delete
+     * @param id            articleId
+     * @return              number of deleted rows
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Article a WHERE a.articleId = :id")
+    int deleteByArticleId(@Param("id") long id);
+
+    /**
+     * @return              newest updated_at of all articles; null if there are none
+     */
+    @Query("SELECT MAX(a.updatedAt) FROM Article a")
+    Date findMaxUpdatedAt();
+
+    /**
+     * reads no article rows, only whether one exists
      * @param title     title of an article
      * @param author    author of an article
-     * @return          List of articles with the same title and author
+     * @param articleId article to ignore; 0 for new articles
+     * @return          true if another article has the same title and author
      */
     //title+author must be unique
-    @Query("SELECT a FROM Article a WHERE a.title=:title and a.author=:author")
-    List<Article> findByTitleAndAuthor(@Param("title") String title, @Param("author") String author);
+    boolean existsByTitleAndAuthorAndArticleIdNot(String title, String author, long articleId);
+
+    /**
+     * duplicate check for a whole import chunk; uses the (title, author) index
+     * @param titles    titles of the chunk
+     * @return          title and author of the articles with one of the titles
+     */
+    List<ArticleSummary> findAllByTitleIn(Collection<String> titles);
+
+    /**
+     * change feed; uses the (updated_at, article_id) index
+     * @param updatedAt     updatedAt of the token
+     * @param articleId     articleId of the token
+     * @param before        only articles updated before this
+     * @param pageable      number of articles
+     * @return              articles after the token in (updatedAt, articleId) order, without content
+     */
+    @Query("SELECT a FROM Article a WHERE (a.updatedAt > :updatedAt " +
+            "OR (a.updatedAt = :updatedAt AND a.articleId > :articleId)) AND a.updatedAt < :before " +
+            "ORDER BY a.updatedAt, a.articleId")
+    List<Article> findChangedAfter(@Param("updatedAt") Date updatedAt, @Param("articleId") long articleId,
+                                   @Param("before") Date before, Pageable pageable);
 
     /**
      * @param pageable
@@ -37,4 +117,77 @@ public interface ArticleRepository extends PagingAndSortingRepository<Article, L
      *                  specified by the Pageable object
      */
     Page<Article> findAll(Pageable pageable);
+
+    /**
+     * selects only the columns of the given projection, e.g. ArticleSummary or ArticlePreview
+     * a Slice needs no COUNT query
+     * @param pageable
+     * @param type      projection interface
+     * @return          a slice of projections that fulfill the restrictions
+     *                  specified by the Pageable object
+     */
+    <T> Slice<T> findSliceBy(Pageable pageable, Class<T> type);
+
+    /**
+     * keyset pagination: articles after the cursor in (updatedAt DESC, articleId DESC) order
+     * @param updatedAt     updatedAt of the cursor
+     * @param sameUpdatedAt updatedAt of the cursor
+     * @param articleId     articleId of the cursor
+     * @param pageable      first page, sorted by updatedAt and articleId descending
+     * @param type          projection interface
+     * @return              slice of projections
+     */
+    <T> Slice<T> findByUpdatedAtLessThanOrUpdatedAtAndArticleIdLessThan(
+            Date updatedAt, Date sameUpdatedAt, long articleId, Pageable pageable, Class<T> type);
+
+    /**
+     * keyset pagination: articles before the cursor in (updatedAt DESC, articleId DESC) order
+     * @param updatedAt     updatedAt of the cursor
+     * @param sameUpdatedAt updatedAt of the cursor
+     * @param articleId     articleId of the cursor
+     * @param pageable      first page, sorted by updatedAt and articleId ascending
+     * @param type          projection interface
+     * @return              slice of projections
+     */
+    <T> Slice<T> findByUpdatedAtGreaterThanOrUpdatedAtAndArticleIdGreaterThan(
+            Date updatedAt, Date sameUpdatedAt, long articleId, Pageable pageable, Class<T> type);
+
+    /**
+     * first page of a category; uses the (category, updated_at, article_id) index
+     * @param category
+     * @param pageable
+     * @param type          projection interface
+     * @return              slice of projections
+     */
+    <T> Slice<T> findByCategory(String category, Pageable pageable, Class<T> type);
+
+    /**
+     * keyset pagination within a category: articles after the cursor in (updatedAt DESC, articleId DESC) order
+     * @param category
+     * @param updatedAt     updatedAt of the cursor
+     * @param sameCategory  category
+     * @param sameUpdatedAt updatedAt of the cursor
+     * @param articleId     articleId of the cursor
+     * @param pageable      first page, sorted by updatedAt and articleId descending
+     * @param type          projection interface
+     * @return              slice of projections
+     */
+    <T> Slice<T> findByCategoryAndUpdatedAtLessThanOrCategoryAndUpdatedAtAndArticleIdLessThan(
+            String category, Date updatedAt, String sameCategory, Date sameUpdatedAt, long articleId,
+            Pageable pageable, Class<T> type);
+
+    /**
+     * keyset pagination within a category: articles before the cursor in (updatedAt DESC, articleId DESC) order
+     * @param category
+     * @param updatedAt     updatedAt of the cursor
+     * @param sameCategory  category
+     * @param sameUpdatedAt updatedAt of the cursor
+     * @param articleId     articleId of the cursor
+     * @param pageable      first page, sorted by updatedAt and articleId ascending
+     * @param type          projection interface
+     * @return              slice of projections
+     */
+    <T> Slice<T> findByCategoryAndUpdatedAtGreaterThanOrCategoryAndUpdatedAtAndArticleIdGreaterThan(
+            String category, Date updatedAt, String sameCategory, Date sameUpdatedAt, long articleId,
+            Pageable pageable, Class<T> type);
 }
\ No newline at end of file
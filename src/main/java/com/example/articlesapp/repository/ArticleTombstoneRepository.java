@@ -0,0 +1,53 @@
+package com.example.articlesapp.repository;
+
+import com.example.articlesapp.model.ArticleTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author platoiscoding.com
+ */
+@Repository
+public interface ArticleTombstoneRepository extends CrudRepository<ArticleTombstone, Long> {
+
+    /**
+     * one INSERT, save() would first look for the id
+     * @param id            articleId of the deleted article
+     * @param deletedAt     time of the deletion
+     * @return              number of inserted rows
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO article_tombstones (article_id, deleted_at) VALUES (:id, :deletedAt)",
+            nativeQuery = true)
+    int insert(@Param("id") long id, @Param("deletedAt") Date deletedAt);
+
+    /**
+     * uses the (deleted_at, article_id) index
+     * @return              time of the newest deletion; null if there are no tombstones
+     */
+    @Query("SELECT MAX(t.deletedAt) FROM ArticleTombstone t")
+    Date findMaxDeletedAt();
+
+    /**
+     * uses the (deleted_at, article_id) index
+     * @param deletedAt     deletedAt of the token
+     * @param articleId     articleId of the token
+     * @param before        only tombstones older than this
+     * @param pageable      number of tombstones
+     * @return              tombstones after the token in (deletedAt, articleId) order
+     */
+    @Query("SELECT t FROM ArticleTombstone t WHERE (t.deletedAt > :deletedAt " +
+            "OR (t.deletedAt = :deletedAt AND t.articleId > :articleId)) AND t.deletedAt < :before " +
+            "ORDER BY t.deletedAt, t.articleId")
+    List<ArticleTombstone> findDeletedAfter(@Param("deletedAt") Date deletedAt, @Param("articleId") long articleId,
+                                            @Param("before") Date before, Pageable pageable);
+}
@@ -0,0 +1,47 @@
+package com.example.articlesapp.repository;
+
+import com.example.articlesapp.model.CategoryCount;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * @author platoiscoding.com
+ */
+@Repository
+public interface CategoryCountRepository extends CrudRepository<CategoryCount, String> {
+
+    /**
+     * @param count     0 for all categories with articles
+     * @return          categories with more articles, in alphabetical order
+     */
+    List<CategoryCount> findByCountGreaterThanOrderByCategory(long count);
+
+    /**
+     * one statement that creates the row of a new category; the row lock orders concurrent writers
+     * MySQL syntax, H2 understands it in MODE=MySQL
+     * @param category  category of the articles
+     * @param delta     number of added articles
+     * @return          number of affected rows
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO category_counts (category, article_count) VALUES (:category, :delta) " +
+            "ON DUPLICATE KEY UPDATE article_count = article_count + VALUES(article_count)", nativeQuery = true)
+    int add(@Param("category") String category, @Param("delta") long delta);
+
+    /**
+     * @param category  category of the articles
+     * @param delta     number of removed articles
+     * @return          number of updated rows, 0 for an unknown category
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CategoryCount c SET c.count = c.count - :delta WHERE c.category = :category")
+    int remove(@Param("category") String category, @Param("delta") long delta);
+}
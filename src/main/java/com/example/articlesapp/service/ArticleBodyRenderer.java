@@ -0,0 +1,65 @@
+package com.example.articlesapp.service;
+
+/**
+ * renders the plain text body of an article to HTML: blank lines separate paragraphs,
+ * single line breaks become &lt;br&gt;; everything else is escaped, so the HTML is safe to
+ * show unescaped. Runs when an article is saved, see ArticleContent.html
+ *
+ * @author platoiscoding.com
+ */
+public final class ArticleBodyRenderer {
+
+    private ArticleBodyRenderer() {
+    }
+
+    /**
+     * @param content   body of an article
+     * @return          &lt;p&gt; elements; null if content is null
+     */
+    public static String render(String content) {
+        if (content == null) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder(content.length() + content.length() / 8);
+        //line breaks seen since the last text; two or more end the paragraph
+        int lineBreaks = 0;
+        boolean inParagraph = false;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '\r') {
+                continue;
+            }
+            if (c == '\n') {
+                lineBreaks++;
+                continue;
+            }
+            //indentation and whitespace-only lines, HTML would collapse them anyway
+            if (Character.isWhitespace(c) && (lineBreaks > 0 || !inParagraph)) {
+                continue;
+            }
+            if (inParagraph && lineBreaks >= 2) {
+                html.append("</p>\n");
+                inParagraph = false;
+            } else if (inParagraph && lineBreaks == 1) {
+                html.append("<br>\n");
+            }
+            lineBreaks = 0;
+            if (!inParagraph) {
+                html.append("<p>");
+                inParagraph = true;
+            }
+            switch (c) {
+                case '&': html.append("&amp;"); break;
+                case '<': html.append("&lt;"); break;
+                case '>': html.append("&gt;"); break;
+                case '"': html.append("&quot;"); break;
+                case '\'': html.append("&#39;"); break;
+                default: html.append(c);
+            }
+        }
+        if (inParagraph) {
+            html.append("</p>");
+        }
+        return html.toString();
+    }
+}
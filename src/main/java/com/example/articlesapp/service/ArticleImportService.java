@@ -0,0 +1,39 @@
+package com.example.articlesapp.service;
+
+import com.example.articlesapp.model.ImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * bulk import of articles
+ *
+ * @author platoiscoding.com
+ */
+public interface ArticleImportService {
+
+    enum Format {
+        CSV,        //header line with title,category,author,description,content
+        NDJSON;     //one JSON article per line
+
+        /**
+         * @param fileName  name of the uploaded or local file
+         * @return          CSV for '.csv' files, NDJSON otherwise
+         */
+        public static Format fromFileName(String fileName) {
+            return fileName != null && fileName.toLowerCase().endsWith(".csv") ? CSV : NDJSON;
+        }
+    }
+
+    /**
+     * reads the input as a stream and saves it chunk by chunk;
+     * invalid articles and articles with a taken title and author are skipped
+     * @param input     CSV or NDJSON
+     * @param format
+     * @return          counts and throughput
+     * @throws IOException if the input cannot be read
+     * @throws com.example.articlesapp.exception.BadRequestException if the input is malformed,
+     *                  the chunks before the malformed row are saved
+     */
+    ImportResult importArticles(InputStream input, Format format) throws IOException;
+}
@@ -0,0 +1,137 @@
+package com.example.articlesapp.service;
+
+import com.example.articlesapp.exception.BadRequestException;
+import com.example.articlesapp.exception.DuplicateArticleException;
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.ArticleSummary;
+import com.example.articlesapp.model.ImportResult;
+import com.example.articlesapp.repository.ArticleRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * @author platoiscoding.com
+ */
+@Service
+public class ArticleImportServiceImpl implements ArticleImportService {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    //articles per transaction; multiple of hibernate.jdbc.batch_size
+    @Value("${articles.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public ImportResult importArticles(InputStream input, Format format) throws IOException {
+        ImportResult result = new ImportResult();
+        long start = System.nanoTime();
+
+        List<Article> chunk = new ArrayList<>(chunkSize);
+        try (MappingIterator<Article> articles = reader(format).readValues(input)) {
+            while (articles.hasNextValue()) {
+                Article article = articles.nextValue();
+                result.addRead(1);
+                //ids and versions are generated, timestamps are set by the constructor; an export has all three
+                article.setArticleId(0);
+                article.setVersion(null);
+                if (!validator.validate(article).isEmpty()) {
+                    result.addInvalid(1);
+                    continue;
+                }
+                chunk.add(article);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (RuntimeJsonMappingException | JsonProcessingException e) {
+            importChunk(chunk, result);
+            throw new BadRequestException("Malformed row " + (result.getRead() + 1) + ", imported until then: "
+                    + result, e);
+        }
+        importChunk(chunk, result);
+
+        result.setMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private ObjectReader reader(Format format) {
+        if (format == Format.CSV) {
+            CsvMapper csvMapper = new CsvMapper();
+            csvMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+            return csvMapper.readerFor(Article.class).with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(Article.class).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * drops duplicates and saves the rest in one batch
+     */
+    private void importChunk(List<Article> chunk, ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Article> unique = withoutDuplicates(chunk);
+        result.addDuplicates(chunk.size() - unique.size());
+        try {
+            result.addImported(articleService.createArticles(unique));
+        } catch (DuplicateArticleException e) {
+            //someone else saved one of the articles after the check; save one by one
+            for (Article article : unique) {
+                article.setArticleId(0);
+                article.setVersion(null);
+                try {
+                    articleService.createArticle(article);
+                    result.addImported(1);
+                } catch (DuplicateArticleException duplicate) {
+                    result.addDuplicates(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * one query for the whole chunk instead of one per article
+     * @return articles whose title and author are neither in the database nor earlier in the chunk
+     */
+    private List<Article> withoutDuplicates(List<Article> chunk) {
+        Set<String> titles = chunk.stream().map(Article::getTitle).collect(Collectors.toSet());
+        Set<List<String>> taken = new HashSet<>();
+        for (ArticleSummary existing : articleRepository.findAllByTitleIn(titles)) {
+            taken.add(Arrays.asList(existing.getTitle(), existing.getAuthor()));
+        }
+
+        List<Article> unique = new ArrayList<>(chunk.size());
+        for (Article article : chunk) {
+            if (taken.add(Arrays.asList(article.getTitle(), article.getAuthor()))) {
+                unique.add(article);
+            }
+        }
+        return unique;
+    }
+}
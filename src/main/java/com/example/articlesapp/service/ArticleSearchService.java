@@ -0,0 +1,43 @@
+package com.example.articlesapp.service;
+
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.SearchHit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+
+/**
+ * full-text search over title, category, author, description and content
+ * the index is kept up to date by ArticleService
+ *
+ * @author platoiscoding.com
+ */
+public interface ArticleSearchService {
+
+    /**
+     * adds the articles or replaces them in the index
+     * @param articles  saved articles
+     */
+    void index(Collection<Article> articles);
+
+    /**
+     * @param articleId article to remove from the index
+     */
+    void remove(long articleId);
+
+    /**
+     * indexes all articles of the database from scratch
+     * @return number of indexed articles
+     */
+    long rebuild();
+
+    /**
+     * @param query     Lucene query syntax, e.g. 'spring AND title:framework'
+     * @param pageable
+     * @return          hits with highlighted fragments, best match first
+     * @throws com.example.articlesapp.exception.BadRequestException if the query cannot be parsed
+     *                  or the page is beyond the first 10000 hits
+     */
+    Page<SearchHit> search(String query, Pageable pageable);
+}
@@ -0,0 +1,368 @@
+package com.example.articlesapp.service;
+
+import com.example.articlesapp.datasource.ReplicaRoutingDataSource;
+import com.example.articlesapp.exception.BadRequestException;
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.SearchHit;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleFragmenter;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * embedded Lucene index in the directory articles.search.index-dir (in memory if empty)
+ * title, category, author, description and content are stored in the index,
+ * so hits and their highlighted fragments are built without reading the database
+ * changes are applied after the database transaction commits and are searchable at once (near real-time);
+ * the index is only committed to disk every articles.search.commit-interval-ms, by rebuild() and on shutdown
+ *
+ * @author platoiscoding.com
+ */
+@Service
+public class ArticleSearchServiceImpl implements ArticleSearchService {
+
+    //index fields
+    private static final String ID = "articleId";
+    private static final String TITLE = "title";
+    private static final String CATEGORY = "category";
+    private static final String AUTHOR = "author";
+    private static final String DESCRIPTION = "description";
+    private static final String CONTENT = "content";
+    private static final String UPDATED_AT = "updatedAt";
+
+    private static final String[] SEARCH_FIELDS = { TITLE, CATEGORY, AUTHOR, DESCRIPTION, CONTENT };
+    private static final Map<String, Float> BOOSTS = new HashMap<>();
+    static {
+        BOOSTS.put(TITLE, 3f);
+        BOOSTS.put(CATEGORY, 2f);
+        BOOSTS.put(AUTHOR, 2f);
+    }
+
+    //highlighting
+    private static final String[] FRAGMENT_FIELDS = { CONTENT, DESCRIPTION };
+    private static final int FRAGMENTS = 2;
+    private static final int FRAGMENT_SIZE = 150;
+    //deepest hit that can be paged to
+    private static final int MAX_HITS = 10_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleSearchServiceImpl.class);
+
+    //lazy: ArticleService updates this index
+    @Lazy
+    @Autowired
+    private ArticleService articleService;
+
+    @Value("${articles.search.index-dir:search-index}")
+    private String indexDir;
+
+    @Value("${articles.search.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    //an empty index is built on startup: a new directory, and always the in-memory one
+    private boolean created;
+    //searchers keep the index from before the rebuild until it is complete
+    private volatile boolean rebuilding;
+    //changes committed while rebuild() reads the articles, applied after it; guarded by itself
+    private final List<IndexChange> pendingChanges = new ArrayList<>();
+
+    @PostConstruct
+    void open() throws IOException {
+        //no directory: in memory only, e.g. for tests
+        directory = indexDir.isEmpty() ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(indexDir));
+        created = indexDir.isEmpty() || !DirectoryReader.indexExists(directory);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        writer.commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * the index is not part of the database migrations; a new or in-memory one is built to match the database,
+     * an existing one only with articles.search.rebuild-on-startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup || created) {
+            logger.info("Search index rebuilt with {} articles", rebuild());
+        }
+    }
+
+    /**
+     * a failure is logged only; the article is saved already and rebuild() repairs the index
+     */
+    @Override
+    public void index(Collection<Article> articles) {
+        List<Article> saved = new ArrayList<>(articles);
+        afterCommit(() -> apply(() -> {
+            for (Article article : saved) {
+                writer.updateDocument(id(article.getArticleId()), document(article));
+            }
+        }, "Could not index " + saved.size() + " articles"));
+    }
+
+    /**
+     * a failure is logged only; the article is deleted already and rebuild() repairs the index
+     */
+    @Override
+    public void remove(long articleId) {
+        afterCommit(() -> apply(() -> writer.deleteDocuments(id(articleId)),
+                "Could not remove article " + articleId + " from the index"));
+    }
+
+    /**
+     * one fsync for all changes since the last commit instead of one per change
+     */
+    @Scheduled(fixedDelayString = "${articles.search.commit-interval-ms:60000}")
+    public void commitChanges() {
+        //a half-built index is not committed
+        if (!rebuilding && writer.hasUncommittedChanges()) {
+            try {
+                writer.commit();
+            } catch (IOException e) {
+                logger.error("Could not commit the search index", e);
+            }
+        }
+    }
+
+    /**
+     * the articles are read in one transaction; changes committed meanwhile wait until they are read,
+     * otherwise an article deleted before it was read would be indexed again
+     */
+    @Override
+    public synchronized long rebuild() {
+        long[] count = { 0 };
+        synchronized (pendingChanges) {
+            rebuilding = true;
+        }
+        try {
+            writer.deleteAll();
+            //a replica may lag behind, or be empty on startup
+            ReplicaRoutingDataSource.readFromPrimary(() -> {
+                articleService.forEachArticle(article -> {
+                    try {
+                        //a change applied just before the rebuild began may have added it again
+                        writer.updateDocument(id(article.getArticleId()), document(article));
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                return null;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            applyPendingChanges();
+        }
+        try {
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count[0];
+    }
+
+    @Override
+    public Page<SearchHit> search(String queryText, Pageable pageable) {
+        if (pageable.getOffset() + pageable.getPageSize() > MAX_HITS) {
+            throw new BadRequestException("Only the first " + MAX_HITS + " hits can be paged through");
+        }
+        Query query;
+        try {
+            query = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer, BOOSTS).parse(queryText);
+        } catch (ParseException e) {
+            throw new BadRequestException("Invalid search query: " + queryText, e);
+        }
+
+        IndexSearcher searcher;
+        try {
+            searcher = searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            TopDocs topDocs = searcher.search(query, (int) pageable.getOffset() + pageable.getPageSize());
+            List<SearchHit> hits = new ArrayList<>();
+            for (int i = (int) pageable.getOffset(); i < topDocs.scoreDocs.length; i++) {
+                Document document = searcher.doc(topDocs.scoreDocs[i].doc);
+                hits.add(new SearchHit(
+                        Long.parseLong(document.get(ID)),
+                        document.get(TITLE),
+                        document.get(CATEGORY),
+                        document.get(AUTHOR),
+                        new Date(document.getField(UPDATED_AT).numericValue().longValue()),
+                        fragment(query, document)));
+            }
+            //exact up to 1000 hits, a lower bound above
+            return new PageImpl<>(hits, pageable, topDocs.totalHits.value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException e) {
+                logger.warn("Could not release searcher", e);
+            }
+        }
+    }
+
+    /**
+     * @return best matching passages of content or description; the start of the description if none matches
+     */
+    private String fragment(Query query, Document document) throws IOException {
+        SimpleHTMLEncoder encoder = new SimpleHTMLEncoder();
+        for (String field : FRAGMENT_FIELDS) {
+            Highlighter highlighter = new Highlighter(new SimpleHTMLFormatter("<mark>", "</mark>"),
+                    encoder, new QueryScorer(query, field));
+            highlighter.setTextFragmenter(new SimpleFragmenter(FRAGMENT_SIZE));
+            String text = document.get(field);
+            if (text == null) {
+                continue;
+            }
+            try {
+                String fragment = highlighter.getBestFragments(analyzer.tokenStream(field, text), text, FRAGMENTS, " … ");
+                if (!fragment.isEmpty()) {
+                    return fragment;
+                }
+            } catch (InvalidTokenOffsetsException e) {
+                logger.warn("Could not highlight " + field + " of article " + document.get(ID), e);
+            }
+        }
+        String description = document.get(DESCRIPTION);
+        return encoder.encodeText(description.length() > FRAGMENT_SIZE
+                ? description.substring(0, FRAGMENT_SIZE) + " …" : description);
+    }
+
+    /**
+     * applies a committed change and makes it searchable; during a rebuild it is queued instead
+     * @param failure   logged if the change fails; the database is changed already and rebuild() repairs the index
+     */
+    private void apply(IndexChange change, String failure) {
+        synchronized (pendingChanges) {
+            if (rebuilding) {
+                pendingChanges.add(change);
+                return;
+            }
+        }
+        try {
+            change.apply();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            logger.error(failure, e);
+        }
+    }
+
+    /**
+     * the changes committed during the rebuild, in their order; the searchers see the index after the next refresh
+     */
+    private void applyPendingChanges() {
+        synchronized (pendingChanges) {
+            for (IndexChange change : pendingChanges) {
+                try {
+                    change.apply();
+                } catch (IOException e) {
+                    logger.error("Could not apply a change made during the rebuild", e);
+                }
+            }
+            pendingChanges.clear();
+            rebuilding = false;
+        }
+    }
+
+    private static Term id(long articleId) {
+        return new Term(ID, String.valueOf(articleId));
+    }
+
+    /**
+     * a rolled back article never reaches the index; without a transaction the change is applied now
+     */
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static Document document(Article article) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(article.getArticleId()), Field.Store.YES));
+        document.add(new TextField(TITLE, article.getTitle(), Field.Store.YES));
+        document.add(new TextField(CATEGORY, article.getCategory(), Field.Store.YES));
+        document.add(new TextField(AUTHOR, article.getAuthor(), Field.Store.YES));
+        document.add(new TextField(DESCRIPTION, article.getDescription(), Field.Store.YES));
+        //null for articles without a content row
+        if (article.getContent() != null) {
+            document.add(new TextField(CONTENT, article.getContent(), Field.Store.YES));
+        }
+        document.add(new StoredField(UPDATED_AT, article.getUpdatedAt().getTime()));
+        return document;
+    }
+
+    /**
+     * a change of the index writer
+     */
+    @FunctionalInterface
+    private interface IndexChange {
+        void apply() throws IOException;
+    }
+}
@@ -2,33 +2,94 @@ package com.example.articlesapp.service;
 
 
 import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.ArticlePreview;
+import com.example.articlesapp.model.ArticleSummary;
+import com.example.articlesapp.model.CategoryCount;
+import com.example.articlesapp.model.ChangeBatch;
+import com.example.articlesapp.model.KeysetPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
-import java.util.Set;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author platoiscoding.com
  */
 public interface ArticleService  {
 
-    Set<Article> getAllArticles();
+    /**
+     * streams all articles with a database cursor in constant memory;
+     * the articles are detached after the action
+     * @param action    called once per article
+     */
+    void forEachArticle(Consumer<? super Article> action);
 
+    /**
+     * @param article
+     * @return          saved article
+     * @throws com.example.articlesapp.exception.DuplicateArticleException if title and author are taken
+     */
     Article createArticle(Article article);
 
+    /**
+     * saves the articles in one transaction with JDBC batch inserts;
+     * the articles are detached afterwards
+     * @param articles  valid articles
+     * @return          number of saved articles
+     * @throws com.example.articlesapp.exception.DuplicateArticleException if one title and author is taken,
+     *                  none of the articles is saved then
+     */
+    int createArticles(List<Article> articles);
+
+    /**
+     * updates the article with a single statement, if it still has the version of the field values
+     * @param id
+     * @param article   field values with the version they are based on
+     * @return          the field values with id, updatedAt and the new version; createdAt is not loaded
+     * @throws com.example.articlesapp.exception.ResourceNotFoundException if there is no article with the id
+     * @throws com.example.articlesapp.exception.DuplicateArticleException if title and author are taken
+     * @throws com.example.articlesapp.exception.StaleArticleException if the article has another version
+     * @throws com.example.articlesapp.exception.BadRequestException if the field values have no version
+     */
     Article updateArticle(Long id, Article article);
 
+    /**
+     * deletes the article with a single statement
+     * @param articleId
+     * @throws com.example.articlesapp.exception.ResourceNotFoundException if there is no article with the id
+     */
     void deleteArticle(Long articleId);
 
+    /**
+     * @param id
+     * @return          the article with its body, without the HTML
+     * @throws com.example.articlesapp.exception.ResourceNotFoundException if there is no article with the id
+     */
     Article findById(Long id);
 
     /**
-     * @return newest article
+     * for the article page
+     * @param id
+     * @return          the article with the HTML of its body, without the body
+     * @throws com.example.articlesapp.exception.ResourceNotFoundException if there is no article with the id
+     */
+    Article findRenderedById(Long id);
+
+    /**
+     * @return newest article; null if there is none
      */
     Article getLatestEntry();
 
+    /**
+     * @param count     maximum number of articles
+     * @return          newest articles first
+     */
+    List<Article> getLatestEntries(int count);
+
     /**
      * tests whether there is an article with te same title and author in the database
+     * the article itself (same articleId) is not counted
      * @param article
      * @return true if there is no article with the same author and title in the database
      */
@@ -37,4 +98,68 @@ public interface ArticleService  {
     //Pagination
     Page<Article> findAll(Pageable pageable);
 
+    /**
+     * @param pageable
+     * @return page of articles without description and content
+     */
+    Page<ArticleSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * @param pageable
+     * @return page of articles with description but without content
+     */
+    Page<ArticlePreview> findAllPreviews(Pageable pageable);
+
+    /**
+     * @param category
+     * @param pageable
+     * @param type      ArticleSummary or ArticlePreview
+     * @return          page of the articles of the category; the total comes from countArticles(category)
+     */
+    <T extends ArticleSummary> Page<T> findCategoryPage(String category, Pageable pageable, Class<T> type);
+
+    /**
+     * keyset pagination ordered by updatedAt and articleId, newest first
+     * @param category  null for all articles
+     * @param cursor    encoded ArticleCursor; null for the first page
+     * @param pageSize
+     * @param type      ArticleSummary or ArticlePreview
+     * @return          page of articles next to the cursor
+     */
+    <T extends ArticleSummary> KeysetPage<T> findKeysetPage(String category, String cursor, int pageSize,
+                                                            Class<T> type);
+
+    /**
+     * change feed ordered by updatedAt and articleId, with the deleted articles
+     * @param since     nextToken of the previous batch; null for all articles
+     * @param pageSize  maximum number of changes
+     * @return          changes after the token with the token of the following batch
+     */
+    ChangeBatch findChanges(String since, int pageSize);
+
+    /**
+     * read from the aggregate that is updated with every create, update and delete
+     * @return          categories with at least one article and their number of articles, in alphabetical order
+     */
+    List<CategoryCount> findCategoryCounts();
+
+    /**
+     * watermark for conditional requests on the listings: the newest updatedAt or deletion in the database
+     * moves after the commit of every create, update and delete, those of other instances included
+     * @return time of the last change to any article, in milliseconds
+     */
+    long getLastModified();
+
+    /**
+     * the count is cached for a configurable time and may lag behind the database
+     * @return number of articles
+     */
+    long countArticles();
+
+    /**
+     * @param category
+     * @return          number of articles in the category
+     */
+    long countArticles(String category);
+
 }
\ No newline at end of file
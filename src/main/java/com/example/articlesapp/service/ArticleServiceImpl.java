@@ -1,14 +1,52 @@
 package com.example.articlesapp.service;
 
+import com.example.articlesapp.datasource.ReplicaRoutingDataSource;
+import com.example.articlesapp.exception.BadRequestException;
+import com.example.articlesapp.exception.DuplicateArticleException;
 import com.example.articlesapp.exception.ResourceNotFoundException;
+import com.example.articlesapp.exception.StaleArticleException;
 import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.ArticleChange;
+import com.example.articlesapp.model.ArticleContent;
+import com.example.articlesapp.model.ArticlePreview;
+import com.example.articlesapp.model.ArticleCursor;
+import com.example.articlesapp.model.ArticleSummary;
+import com.example.articlesapp.model.ArticleTombstone;
+import com.example.articlesapp.model.CategoryCount;
+import com.example.articlesapp.model.ChangeBatch;
+import com.example.articlesapp.model.ChangeToken;
+import com.example.articlesapp.model.KeysetPage;
+import com.example.articlesapp.repository.ArticleContentRepository;
 import com.example.articlesapp.repository.ArticleRepository;
+import com.example.articlesapp.repository.ArticleTombstoneRepository;
+import com.example.articlesapp.repository.CategoryCountRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author platoiscoding.com
@@ -16,85 +54,492 @@ import java.util.*;
 @Service
 public class ArticleServiceImpl implements ArticleService{
 
+    //caches, configured by spring.cache.* in application.properties
+    public static final String ARTICLE_CACHE = "articles";              //Article by id
+    public static final String RENDERED_ARTICLE_CACHE = "renderedArticles"; //Article by id with the HTML of its body
+    public static final String LISTING_CACHE = "articlePages";          //first pages of the listings
+    public static final String PAGE_CACHE = "renderedPages";            //HTML of the listings, see PageCacheFilter
+    //listing pages per page size that are cached
+    private static final int CACHED_LISTING_PAGES = 3;
+    //prefix of the listing keys: a listing read before a commit is stored under the watermark from before it
+    private static final String WATERMARK_KEY = "#root.target.getLastModified() + ':' + ";
+
+    //keyset pagination order, newest first
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "updatedAt", "articleId");
+
     @Autowired
     private ArticleRepository articleRepository;
 
+    @Autowired
+    private ArticleContentRepository articleContentRepository;
+
+    @Autowired
+    private CategoryCountRepository categoryCountRepository;
+
+    @Autowired
+    private ArticleTombstoneRepository articleTombstoneRepository;
+
+    @Autowired
+    private ArticleSearchService articleSearchService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${articles.pagination.count-ttl-seconds:60}")
+    private long countTtlSeconds;
+
+    @Value("${articles.changes.settle-seconds:5}")
+    private long changesSettleSeconds;
+
+    @Value("${articles.cache.last-modified-ttl-ms:1000}")
+    private long lastModifiedTtlMillis;
+
+    //cached result of countArticles(); -1 if there is none
+    private volatile long cachedCount = -1;
+    private volatile long cachedCountTime;
+
+    //newest change in the database, see getLastModified(); 0 until read
+    private volatile long lastModified;
+    //when lastModified was read; 0 to read it again on the next call
+    private volatile long lastModifiedReadAt;
+    //this instance committed a change since lastModified was read
+    private boolean changeCommitted;
+
     @Override
-    public Set<Article> getAllArticles(){
-        Set<Article> articleSet =  new HashSet<>();
-        articleRepository.findAll().iterator().forEachRemaining(articleSet::add);
-        return articleSet;
+    @Transactional(readOnly = true)
+    public void forEachArticle(Consumer<? super Article> action){
+        try (Stream<Object[]> rows = articleContentRepository.streamAllWithContent()) {
+            rows.forEach(row -> {
+                Article article = (Article) row[0];
+                article.setContent((String) row[1]);
+                action.accept(article);
+                //keep the persistence context from growing with the table
+                entityManager.detach(article);
+            });
+        }
     }
 
     @Override
+    @Transactional
     public Article createArticle(Article article){
         Article newArticle;
-        newArticle = articleRepository.save(article);
+        try {
+            newArticle = articleRepository.save(article);
+            articleContentRepository.save(new ArticleContent(newArticle, newArticle.getContent(),
+                    ArticleBodyRenderer.render(newArticle.getContent())));
+            //insert now so that a taken title+author fails here and not on commit
+            entityManager.flush();
+            categoryCountRepository.add(newArticle.getCategory(), 1);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicate(article, e);
+        } catch (PersistenceException e) {
+            if (e.getCause() instanceof ConstraintViolationException) {
+                throw duplicate(article, e);
+            }
+            throw e;
+        }
+        articlesChanged();
+        articleSearchService.index(Collections.singletonList(newArticle));
         return newArticle;
     }
 
+    @Override
+    @Transactional
+    public int createArticles(List<Article> articles){
+        try {
+            articleRepository.saveAll(articles);
+            articleContentRepository.saveAll(articles.stream()
+                    .map(article -> new ArticleContent(article, article.getContent(),
+                            ArticleBodyRenderer.render(article.getContent())))
+                    .collect(Collectors.toList()));
+            //send the batches now and start the next call with an empty persistence context
+            entityManager.flush();
+            entityManager.clear();
+            //one statement per category of the chunk, in a fixed order so that concurrent imports do not deadlock
+            articles.stream()
+                    .collect(Collectors.groupingBy(Article::getCategory, TreeMap::new, Collectors.counting()))
+                    .forEach(categoryCountRepository::add);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateArticleException("An article of the batch has a title and author that are taken", e);
+        } catch (PersistenceException e) {
+            if (e.getCause() instanceof ConstraintViolationException) {
+                throw new DuplicateArticleException("An article of the batch has a title and author that are taken", e);
+            }
+            throw e;
+        }
+        articlesChanged();
+        articleSearchService.index(articles);
+        return articles.size();
+    }
+
     /**
      * tests whether there is an article with te same title and author in the database
+     * the article itself (same articleId) is not counted
      * @param article
      * @return true if there is no article with the same author and title in the database
      */
     @Override
     public boolean titleAndAuthorValid(Article article){
-        Set<Article> articleSet = new HashSet<>();
-        articleRepository.findByTitleAndAuthor(article.getTitle(),article.getAuthor())
-                .iterator().forEachRemaining(articleSet::add);
-        if (!articleSet.isEmpty()) { return false;}
-        else {return true;}
+        return !articleRepository.existsByTitleAndAuthorAndArticleIdNot(
+                article.getTitle(), article.getAuthor(), article.getArticleId());
     }
 
+    /**
+     * the article is also evicted before, so that after a StaleArticleException
+     * findById() does not return the outdated version the update was based on
+     */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {ARTICLE_CACHE, RENDERED_ARTICLE_CACHE}, key = "#id", beforeInvocation = true)
     public Article updateArticle(Long id, Article articleDetails) {
-        Article article = findById(id);
-
-        article.setCategory(articleDetails.getCategory());
-        article.setTitle(articleDetails.getTitle());
-        article.setAuthor(articleDetails.getAuthor());
-        article.setDescription(articleDetails.getDescription());
-        article.setContent(articleDetails.getContent());
         //created_at is not updatable
-        article.setUpdatedAt(new Date());
-        articleRepository.save(article);
-        return article;
+        articleDetails.setUpdatedAt(new Date());
+        Long version = articleDetails.getVersion();
+        //without it the update would overwrite whatever was saved since the article was read
+        if (version == null) {
+            throw new BadRequestException("The update of the Article with ID = " + id + " has no version");
+        }
+        /*
+            only the category is read, it is not locked: the UPDATE only succeeds
+            if no one saved the article since, and then the category read is the one replaced
+         */
+        String previousCategory = articleRepository.findCategoryByArticleId(id).orElseThrow(() ->
+                new ResourceNotFoundException("There is no Article with ID = " + id));
+        //one UPDATE statement per table, the article is not loaded first
+        int updated;
+        try {
+            updated = articleRepository.updateById(id, articleDetails.getTitle(), articleDetails.getCategory(),
+                    articleDetails.getAuthor(), articleDetails.getDescription(), articleDetails.getUpdatedAt(),
+                    version);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicate(articleDetails, e);
+        }
+        if (updated == 0) {
+            throw new StaleArticleException("Article with ID = " + id + " was changed after version " + version);
+        }
+        if (!previousCategory.equals(articleDetails.getCategory())) {
+            categoryCountRepository.remove(previousCategory, 1);
+            categoryCountRepository.add(articleDetails.getCategory(), 1);
+        }
+        String html = ArticleBodyRenderer.render(articleDetails.getContent());
+        if (articleContentRepository.updateContent(id, articleDetails.getContent(), html) == 0) {
+            //an article from before the content was split off, see db/split-article-content.mysql.sql
+            articleContentRepository.save(new ArticleContent(
+                    entityManager.getReference(Article.class, id), articleDetails.getContent(), html));
+        }
+        articleDetails.setArticleId(id);
+        articleDetails.setVersion(version + 1);
+        articlesChanged(id);
+        articleSearchService.index(Collections.singletonList(articleDetails));
+        return articleDetails;
     }
 
     @Override
+    @Transactional
     public void deleteArticle(Long articleId) {
-        articleRepository.delete(findById(articleId));
+        //only the category is read, and locked until the count is updated
+        String category = articleRepository.findCategoryForUpdate(articleId).orElseThrow(() ->
+                new ResourceNotFoundException("There is no Article with ID = " + articleId));
+        //one DELETE statement, the article is not loaded first and article_contents cascades in the database
+        articleRepository.deleteByArticleId(articleId);
+        articleTombstoneRepository.insert(articleId, new Date());
+        categoryCountRepository.remove(category, 1);
+        articlesChanged(articleId);
+        articleSearchService.remove(articleId);
     }
 
+    /**
+     * reads the body, not its HTML: both are compressed, see CompressedTextConverter
+     * the returned article is shared through the cache and must not be modified; like all cached reads
+     * it comes from the primary, see ReplicaRoutingDataSource.readFromPrimary()
+     */
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = ARTICLE_CACHE, key = "#id")
     public Article findById(Long id){
+        return ReplicaRoutingDataSource.readFromPrimary(() -> {
+            Article article = loadArticle(id);
+            articleContentRepository.findContentByArticleId(id).ifPresent(article::setContent);
+            return article;
+        });
+    }
+
+    /**
+     * reads the HTML, not the body; shared through the cache like findById()
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = RENDERED_ARTICLE_CACHE, key = "#id")
+    public Article findRenderedById(Long id) {
+        return ReplicaRoutingDataSource.readFromPrimary(() -> {
+            Article article = loadArticle(id);
+            Optional<String> html = articleContentRepository.findHtmlByArticleId(id);
+            //rendered when the article was saved; articles from before V6 are rendered here
+            article.setContentHtml(html.isPresent() ? html.get() : articleContentRepository
+                    .findContentByArticleId(id).map(ArticleBodyRenderer::render).orElse(null));
+            return article;
+        });
+    }
+
+    private Article loadArticle(Long id) {
         Optional<Article> articleOptional = articleRepository.findById(id);
 
         if (!articleOptional.isPresent()) {
             throw new ResourceNotFoundException("There is no Article with ID = " + id);
         }
-
         return articleOptional.get();
-
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Article getLatestEntry(){
-        Set<Article> articles = getAllArticles();
-        if(articles.isEmpty()){
-            return null;
-        }
-        else{
-            Long latestArticleID = articleRepository.findTopByOrderByIdDesc();
-            return findById(latestArticleID);
-        }
+        List<Article> articles = getLatestEntries(1);
+        return articles.isEmpty() ? null : articles.get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Article> getLatestEntries(int count){
+        return articleRepository.findAllByOrderByArticleIdDesc(PageRequest.of(0, count));
     }
 
     //Pagination
     @Override
+    @Transactional(readOnly = true)
     public Page<Article> findAll(Pageable pageable) {
         return articleRepository.findAll(pageable);
     }
 
+    /**
+     * the total of the page comes from countArticles() instead of a COUNT query per page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = LISTING_CACHE,
+            key = WATERMARK_KEY + "'summaries:' + #pageable.pageNumber + ':' + #pageable.pageSize",
+            condition = "#pageable.pageNumber < " + CACHED_LISTING_PAGES)
+    public Page<ArticleSummary> findAllSummaries(Pageable pageable) {
+        return ReplicaRoutingDataSource.readFromPrimary(() -> {
+            Slice<ArticleSummary> slice = articleRepository.findSliceBy(pageable, ArticleSummary.class);
+            return new PageImpl<>(slice.getContent(), pageable, countArticles());
+        });
+    }
+
+    /**
+     * the total of the page comes from countArticles() instead of a COUNT query per page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = LISTING_CACHE,
+            key = WATERMARK_KEY + "'previews:' + #pageable.pageNumber + ':' + #pageable.pageSize",
+            condition = "#pageable.pageNumber < " + CACHED_LISTING_PAGES)
+    public Page<ArticlePreview> findAllPreviews(Pageable pageable) {
+        return ReplicaRoutingDataSource.readFromPrimary(() -> {
+            Slice<ArticlePreview> slice = articleRepository.findSliceBy(pageable, ArticlePreview.class);
+            return new PageImpl<>(slice.getContent(), pageable, countArticles());
+        });
+    }
+
+    /**
+     * the total of the page comes from the category counts instead of a COUNT query per page
+     * unsorted pages are read newest first, in the order of the (category, updated_at, article_id) index
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public <T extends ArticleSummary> Page<T> findCategoryPage(String category, Pageable pageable, Class<T> type) {
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_FIRST);
+        }
+        Slice<T> slice = articleRepository.findByCategory(category, pageable, type);
+        return new PageImpl<>(slice.getContent(), pageable, countArticles(category));
+    }
+
+    /**
+     * only the first page is cached, the others depend on the cursor
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = LISTING_CACHE,
+            key = WATERMARK_KEY + "'keyset:' + #type.simpleName + ':' + #pageSize + ':' + #category",
+            condition = "#cursor == null || #cursor.isEmpty()")
+    public <T extends ArticleSummary> KeysetPage<T> findKeysetPage(String category, String cursor, int pageSize,
+                                                                   Class<T> type) {
+        if (cursor == null || cursor.isEmpty()) {
+            PageRequest first = PageRequest.of(0, pageSize, NEWEST_FIRST);
+            Slice<T> slice = ReplicaRoutingDataSource.readFromPrimary(() -> category == null
+                    ? articleRepository.findSliceBy(first, type)
+                    : articleRepository.findByCategory(category, first, type));
+            return new KeysetPage<>(slice.getContent(), 0, slice.hasNext(), false);
+        }
+
+        ArticleCursor position = ArticleCursor.decode(cursor);
+        if (position.getDirection() == ArticleCursor.Direction.NEXT) {
+            PageRequest next = PageRequest.of(0, pageSize, NEWEST_FIRST);
+            Slice<T> slice = category == null
+                    ? articleRepository.findByUpdatedAtLessThanOrUpdatedAtAndArticleIdLessThan(
+                            position.getUpdatedAt(), position.getUpdatedAt(), position.getArticleId(), next, type)
+                    : articleRepository.findByCategoryAndUpdatedAtLessThanOrCategoryAndUpdatedAtAndArticleIdLessThan(
+                            category, position.getUpdatedAt(), category, position.getUpdatedAt(),
+                            position.getArticleId(), next, type);
+            return new KeysetPage<>(slice.getContent(), position.getPage(), slice.hasNext(), true);
+        }
+
+        //read backwards from the cursor and restore the newest first order
+        PageRequest previous = PageRequest.of(0, pageSize, NEWEST_FIRST.ascending());
+        Slice<T> slice = category == null
+                ? articleRepository.findByUpdatedAtGreaterThanOrUpdatedAtAndArticleIdGreaterThan(
+                        position.getUpdatedAt(), position.getUpdatedAt(), position.getArticleId(), previous, type)
+                : articleRepository.findByCategoryAndUpdatedAtGreaterThanOrCategoryAndUpdatedAtAndArticleIdGreaterThan(
+                        category, position.getUpdatedAt(), category, position.getUpdatedAt(),
+                        position.getArticleId(), previous, type);
+        List<T> content = new ArrayList<>(slice.getContent());
+        Collections.reverse(content);
+        return new KeysetPage<>(content, Math.max(position.getPage(), 0), true, slice.hasNext());
+    }
+
+    /**
+     * articles and tombstones are both read after the token, n+1 of each, and merged;
+     * changes of the last changesSettleSeconds are left for a later batch, their transactions
+     * may still be running or on their way to the replica, with an earlier updatedAt than a visible change
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeBatch findChanges(String since, int pageSize) {
+        ChangeToken token = ChangeToken.decode(since);
+        Date before = new Date(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(changesSettleSeconds));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<ArticleChange> changes = new ArrayList<>();
+        for (Article article : articleRepository.findChangedAfter(
+                token.getChangedAt(), token.getArticleId(), before, limit)) {
+            changes.add(ArticleChange.upsert(article));
+        }
+        for (ArticleTombstone tombstone : articleTombstoneRepository.findDeletedAfter(
+                token.getChangedAt(), token.getArticleId(), before, limit)) {
+            changes.add(ArticleChange.delete(tombstone));
+        }
+        changes.sort(Comparator.comparing(ArticleChange::getChangedAt)
+                .thenComparingLong(ArticleChange::getArticleId));
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        //the bodies of the batch in one query
+        Map<Long, Article> upserts = changes.stream()
+                .filter(change -> change.getType() == ArticleChange.Type.UPSERT)
+                .collect(Collectors.toMap(ArticleChange::getArticleId, ArticleChange::getArticle));
+        for (ArticleContent content : articleContentRepository.findAllById(upserts.keySet())) {
+            upserts.get(content.getArticleId()).setContent(content.getContent());
+        }
+        return new ChangeBatch(new ArrayList<>(changes), token, hasMore);
+    }
+
+    /**
+     * fields are validated before saving, so the only violated constraint is title+author
+     */
+    private static DuplicateArticleException duplicate(Article article, RuntimeException cause) {
+        return new DuplicateArticleException("There is already an article with title = " + article.getTitle()
+                + " and author = " + article.getAuthor(), cause);
+    }
+
+    /**
+     * evicts the caches, resets the count and has the watermark read again, all after the commit:
+     * a request before the commit reads the old articles and must get the old watermark with them
+     * @param articleIds    updated or deleted articles
+     */
+    private void articlesChanged(Long... articleIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changeCommitted(articleIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                changeCommitted(articleIds);
+            }
+        });
+    }
+
+    private void changeCommitted(Long[] articleIds) {
+        //also what was read between the update and the commit
+        Cache articles = cacheManager.getCache(ARTICLE_CACHE);
+        Cache renderedArticles = cacheManager.getCache(RENDERED_ARTICLE_CACHE);
+        for (Long articleId : articleIds) {
+            articles.evict(articleId);
+            renderedArticles.evict(articleId);
+        }
+        //the listings are keyed by the watermark, the old ones are only removed to free the cache
+        cacheManager.getCache(LISTING_CACHE).clear();
+        cacheManager.getCache(PAGE_CACHE).clear();
+        watermarkChanged();
+    }
+
+    private synchronized void watermarkChanged() {
+        cachedCount = -1;
+        changeCommitted = true;
+        lastModifiedReadAt = 0;
+    }
+
+    /**
+     * read from the database, so that changes of other instances move it as well; at most every
+     * articles.cache.last-modified-ttl-ms, and on the next call after a change of this instance
+     */
+    @Override
+    public long getLastModified() {
+        if (System.currentTimeMillis() - lastModifiedReadAt >= lastModifiedTtlMillis) {
+            readLastModified();
+        }
+        return lastModified;
+    }
+
+    private synchronized void readLastModified() {
+        long now = System.currentTimeMillis();
+        //read by another thread in the meantime
+        if (now - lastModifiedReadAt < lastModifiedTtlMillis) {
+            return;
+        }
+        //a replica would hold it back, and the cache keys with it
+        long newest = ReplicaRoutingDataSource.readFromPrimary(() -> Math.max(
+                time(articleRepository.findMaxUpdatedAt()), time(articleTombstoneRepository.findMaxDeletedAt())));
+        //never moves back; a change of this instance moves it even if it committed after a newer one
+        //or in the same millisecond
+        lastModified = changeCommitted ? Math.max(newest, lastModified + 1) : Math.max(newest, lastModified);
+        changeCommitted = false;
+        lastModifiedReadAt = now;
+    }
+
+    private static long time(Date date) {
+        return date != null ? date.getTime() : 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = LISTING_CACHE, key = WATERMARK_KEY + "'categories'")
+    public List<CategoryCount> findCategoryCounts() {
+        return ReplicaRoutingDataSource.readFromPrimary(() ->
+                categoryCountRepository.findByCountGreaterThanOrderByCategory(0));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = LISTING_CACHE, key = WATERMARK_KEY + "'count:' + #category")
+    public long countArticles(String category) {
+        return ReplicaRoutingDataSource.readFromPrimary(() ->
+                categoryCountRepository.findById(category).map(CategoryCount::getCount).orElse(0L));
+    }
+
+    @Override
+    public long countArticles() {
+        long now = System.currentTimeMillis();
+        if (cachedCount < 0 || now - cachedCountTime > TimeUnit.SECONDS.toMillis(countTtlSeconds)) {
+            cachedCount = ReplicaRoutingDataSource.readFromPrimary(articleRepository::count);
+            cachedCountTime = now;
+        }
+        return cachedCount;
+    }
+
 }
@@ -0,0 +1,15 @@
+-- article counts per category, see CategoryCount; maintained by the application from now on
+
+CREATE TABLE category_counts (
+  category VARCHAR(255) NOT NULL,
+  article_count BIGINT NOT NULL,
+  PRIMARY KEY (category)
+);
+
+INSERT INTO category_counts (category, article_count)
+  SELECT category, COUNT(*) FROM articles WHERE category IS NOT NULL GROUP BY category;
+
+-- the listing of a category seeks on the category and reads in the order of the listing;
+-- category lookups use its first column
+DROP INDEX idx_articles_category ON articles;
+CREATE INDEX idx_articles_category_updated_at ON articles (category, updated_at DESC, article_id DESC);
@@ -0,0 +1,3 @@
+-- optimistic locking of article edits, see DateAudit.version; existing articles start at version 0
+
+ALTER TABLE articles ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
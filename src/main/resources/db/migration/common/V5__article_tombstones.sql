@@ -0,0 +1,10 @@
+-- deleted articles for the change feed, see ArticleTombstone; articles deleted before are not in it
+
+CREATE TABLE article_tombstones (
+  article_id BIGINT NOT NULL,
+  deleted_at DATETIME NOT NULL,
+  PRIMARY KEY (article_id)
+);
+
+-- the feed reads the tombstones after its token in this order
+CREATE INDEX idx_article_tombstones_deleted_at ON article_tombstones (deleted_at, article_id);
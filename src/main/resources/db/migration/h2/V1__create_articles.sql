@@ -0,0 +1,27 @@
+-- same schema as mysql/V1__create_articles.sql for the tests and benchmarks
+
+CREATE TABLE articles (
+  article_id BIGINT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  updated_at TIMESTAMP NOT NULL,
+  title VARCHAR(100),
+  category VARCHAR(255),
+  author VARCHAR(255),
+  description CLOB,
+  PRIMARY KEY (article_id),
+  CONSTRAINT uk_articles_title_author UNIQUE (title, author)
+);
+
+-- H2 sorts by an index only in the order the index was declared in
+CREATE INDEX idx_articles_updated_at_article_id ON articles (updated_at DESC, article_id DESC);
+CREATE INDEX idx_articles_category ON articles (category);
+
+CREATE TABLE article_contents (
+  article_id BIGINT NOT NULL,
+  content BLOB NOT NULL,
+  PRIMARY KEY (article_id),
+  CONSTRAINT fk_article_contents_article FOREIGN KEY (article_id)
+    REFERENCES articles (article_id) ON DELETE CASCADE
+);
+
+CREATE SEQUENCE article_seq START WITH 10000 INCREMENT BY 50;
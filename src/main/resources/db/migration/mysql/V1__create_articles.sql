@@ -0,0 +1,32 @@
+-- articles and their bodies, see Article and ArticleContent; InnoDB for the cascading foreign key
+
+CREATE TABLE articles (
+  article_id BIGINT NOT NULL,
+  created_at DATETIME NOT NULL,
+  updated_at DATETIME NOT NULL,
+  title VARCHAR(100),
+  category VARCHAR(255),
+  author VARCHAR(255),
+  description LONGTEXT,
+  PRIMARY KEY (article_id),
+  -- duplicate check and the unique constraint in one index
+  CONSTRAINT uk_articles_title_author UNIQUE (title, author),
+  -- newest first listing and keyset pagination; DESC is used by MySQL 8, 5.7 scans it backwards
+  INDEX idx_articles_updated_at_article_id (updated_at DESC, article_id DESC),
+  INDEX idx_articles_category (category)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE article_contents (
+  article_id BIGINT NOT NULL,
+  content LONGBLOB NOT NULL,
+  PRIMARY KEY (article_id),
+  CONSTRAINT fk_article_contents_article FOREIGN KEY (article_id)
+    REFERENCES articles (article_id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- MySQL has no sequences, Hibernate keeps the next value of article_seq in a table
+CREATE TABLE article_seq (
+  next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO article_seq VALUES (10000);
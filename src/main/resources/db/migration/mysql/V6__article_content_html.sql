@@ -0,0 +1,3 @@
+-- rendered body of the article, see ArticleBodyRenderer; existing articles are rendered when they are read
+
+ALTER TABLE article_contents ADD COLUMN html LONGBLOB;
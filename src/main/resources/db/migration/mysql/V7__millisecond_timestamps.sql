@@ -0,0 +1,8 @@
+-- DATETIME rounds to whole seconds, so two changes in the same second had the same timestamp;
+-- the listing watermark and the change feed compare them. H2 stores TIMESTAMP with fractions already
+
+ALTER TABLE articles
+  MODIFY created_at DATETIME(3) NOT NULL,
+  MODIFY updated_at DATETIME(3) NOT NULL;
+
+ALTER TABLE article_tombstones MODIFY deleted_at DATETIME(3) NOT NULL;
@@ -0,0 +1 @@
+-- production: no demo articles, see db/seed; a database seeded before needs one flyway repair for the checksum
@@ -0,0 +1,20 @@
+-- demo articles, ids below 10000 are not used by article_seq
+
+INSERT INTO articles (article_id, created_at, updated_at, author, category, description, title) VALUES
+  ( 1000, '2018-12-28 00:27:24', '2019-12-28 00:27:24', 'Wikipedia', 'Java', 'The Spring Framework is an application framework and inversion of control container for the Java platform. The framework''s core features can be used by any Java application, but there are extensions for building web applications on top of the Java EE (Enterprise Edition) platform. ', 'Spring Framework'),
+  ( 1001, '2018-12-28 00:27:24', '2019-12-28 00:27:24', 'Wikipedia', 'Java', 'A template processor (also known as a template engine or template parser) is software designed to combine templates with a data model to produce result documents.[1][2][3] The language that the templates are written in is known as a template language or templating language. ', 'Template processor'),
+  ( 1002, '2018-12-28 00:27:24', '2019-12-28 00:27:24', 'Wikipedia', 'Java', 'Apache Tomcat, often referred to as Tomcat Server, is an open-source Java Servlet Container developed by the Apache Software Foundation (ASF). Tomcat implements several Java EE specifications including Java Servlet, JavaServer Pages (JSP), Java EL, and WebSocket, and provides a "pure Java" HTTP web server environment in which Java code can run.', 'Apache Tomcat'),
+  ( 1003, '2018-12-28 00:27:24', '2019-12-28 00:27:24', 'Wikipedia', 'Java', 'Spring Web Flow (SWF) is the sub-project of the Spring Framework that focuses on providing the infrastructure for building and running rich web applications. ', 'Spring Web Flow'),
+  ( 1004, '2018-12-28 00:27:24', '2019-12-28 00:27:24', 'Wikipedia', 'Java', 'Jenkins is an open source automation server written in Java. Jenkins helps to automate the non-human part of the software development process, with continuous integration and facilitating technical aspects of continuous delivery. ', 'Jenkins (software)'),
+  ( 1005, '2018-12-28 00:27:24', '2019-12-28 00:27:24', 'Wikipedia', 'TypeScript', 'Angular (commonly referred to as "Angular 2+" or "Angular v2 and above")[4][5] is a TypeScript-based open-source web application framework led by the Angular Team at Google and by a community of individuals and corporations. Angular is a complete rewrite from the same team that built AngularJS.', 'Angular (web framework)'),
+  ( 1006, '2018-12-28 00:27:24', '2019-12-28 00:27:24', 'Wikipedia', 'JavaScript', 'React (also known as React.js or ReactJS) is a JavaScript library[3] for building user interfaces. It is maintained by Facebook and a community of individual developers and companies.', 'React (JavaScript library)');
+
+-- bodies are the UTF-8 bytes of the text, stored uncompressed; CompressedTextConverter reads both forms
+INSERT INTO article_contents (article_id, content) VALUES
+  ( 1000, X'43656e7472616c20746f2074686520537072696e67204672616d65776f726b2069732069747320696e76657273696f6e206f6620636f6e74726f6c2028496f432920636f6e7461696e65722c2077686963682070726f7669646573206120636f6e73697374656e74206d65616e73206f6620636f6e6669677572696e6720616e64206d616e6167696e67204a617661206f626a65637473207573696e67207265666c656374696f6e2e2054686520636f6e7461696e657220697320726573706f6e7369626c6520666f72206d616e6167696e67206f626a656374206c6966656379636c6573206f66207370656369666963206f626a656374733a206372656174696e67207468657365206f626a656374732c2063616c6c696e6720746865697220696e697469616c697a6174696f6e206d6574686f64732c20616e6420636f6e6669677572696e67207468657365206f626a6563747320627920776972696e67207468656d20746f6765746865722e0a4f626a6563747320637265617465642062792074686520636f6e7461696e65722061726520616c736f2063616c6c6564206d616e61676564206f626a65637473206f72206265616e732e2054686520636f6e7461696e65722063616e20626520636f6e66696775726564206279206c6f6164696e6720584d4c2028457874656e7369626c65204d61726b7570204c616e6775616765292066696c6573206f7220646574656374696e67207370656369666963204a61766120616e6e6f746174696f6e73206f6e20636f6e66696775726174696f6e20636c61737365732e205468657365206461746120736f757263657320636f6e7461696e20746865206265616e20646566696e6974696f6e7320746861742070726f766964652074686520696e666f726d6174696f6e20726571756972656420746f2063726561746520746865206265616e732e0a4f626a656374732063616e206265206f627461696e6564206279206d65616e73206f662065697468657220646570656e64656e6379206c6f6f6b7570206f7220646570656e64656e637920696e6a656374696f6e2e5b31325d20446570656e64656e6379206c6f6f6b75702069732061207061747465726e20776865726520612063616c6c65722061736b732074686520636f6e7461696e6572206f626a65637420666f7220616e206f626a65637420776974682061207370656369666963206e616d65206f72206f66206120737065636966696320747970652e20446570656e64656e637920696e6a656374696f6e2069732061207061747465726e2077686572652074686520636f6e7461696e657220706173736573206f626a65637473206279206e616d6520746f206f74686572206f626a656374732c207669612065697468657220636f6e7374727563746f72732c2070726f706572746965732c206f7220666163746f7279206d6574686f64732e0a496e206d616e79206361736573206f6e65206e656564206e6f74207573652074686520636f6e7461696e6572207768656e207573696e67206f74686572207061727473206f662074686520537072696e67204672616d65776f726b2c20616c74686f756768207573696e672069742077696c6c206c696b656c79206d616b6520616e206170706c69636174696f6e2065617369657220746f20636f6e66696775726520616e6420637573746f6d697a652e2054686520537072696e6720636f6e7461696e65722070726f7669646573206120636f6e73697374656e74206d656368616e69736d20746f20636f6e666967757265206170706c69636174696f6e7320616e6420696e7465677261746573207769746820616c6d6f737420616c6c204a61766120656e7669726f6e6d656e74732c2066726f6d20736d616c6c2d7363616c65206170706c69636174696f6e7320746f206c6172676520656e7465727072697365206170706c69636174696f6e732e0a54686520636f6e7461696e65722063616e206265207475726e656420696e746f2061207061727469616c6c7920636f6d706c69616e7420454a422028456e7465727072697365204a6176614265616e732920332e3020636f6e7461696e6572206279206d65616e73206f6620746865205069746368666f726b2070726f6a6563742e20536f6d655b77686f3f5d20637269746963697a652074686520537072696e67204672616d65776f726b20666f72206e6f7420636f6d706c79696e672077697468207374616e64617264732e5b31335d20486f77657665722c20537072696e67536f7572636520646f65736e27742073656520454a42203320636f6d706c69616e63652061732061206d616a6f7220676f616c2c20616e6420636c61696d7320746861742074686520537072696e67204672616d65776f726b20616e642074686520636f6e7461696e657220616c6c6f7720666f72206d6f726520706f77657266756c2070726f6772616d6d696e67206d6f64656c732e5b31345d205468652070726f6772616d6d657220646f6573206e6f74206469726563746c792063726561746520616e206f626a6563742c2062757420646573637269626520686f7720746865792073686f756c6420626520637265617465642c20627920646566696e696e6720697420696e2074686520537072696e6720636f6e66696775726174696f6e2066696c652e2053696d696c61726c7920736572766963657320616e6420636f6d706f6e656e747320617265206e6f742063616c6c6564206469726563746c793b20696e7374656164206120537072696e6720636f6e66696775726174696f6e2066696c6520646566696e657320776869636820736572766963657320616e6420636f6d706f6e656e7473206d7573742062652063616c6c65642e205468697320496f4320697320696e74656e64656420746f20696e637265617365207468652065617365206f66206d61696e74656e616e636520616e642074657374696e672e'),
+  ( 1001, X'5768696c652074656d706c6174652070726f636573736f727320617265207479706963616c6c792061207365706172617465207069656365206f6620736f6674776172652c20757365642061732070617274206f6620612073797374656d206f72206672616d65776f726b2c2073696d706c652074656d706c6174696e67206c616e6775616765732061726520636f6d6d6f6e6c7920696e636c7564656420696e2074686520737472696e672070726f63657373696e67206665617475726573206f662067656e6572616c2d707572706f73652070726f6772616d6d696e67206c616e6775616765732c20616e6420696e20746578742070726f63657373696e672070726f6772616d732c206e6f7461626c79207465787420656469746f7273206f7220776f72642070726f636573736f72732e205468652074656d706c6174696e67206c616e677561676573206172652067656e6572616c6c792073696d706c6520737562737469747574696f6e2d6f6e6c79206c616e6775616765732c20696e20636f6e747261737420746f20746865206d6f726520736f706869737469636174656420666163696c697469657320696e2066756c6c2d626c6f776e2074656d706c6174652070726f636573736f72732c20627574206d617920636f6e7461696e20736f6d65206c6f6769632e0a53696d706c65206578616d706c657320696e636c756465207072696e7420666f726d617420737472696e67732c20666f756e6420696e206d616e792070726f6772616d6d696e67206c616e6775616765732c20616e6420736e6970706574732c20666f756e6420696e2061206e756d626572206f66207465787420656469746f727320616e6420736f7572636520636f646520656469746f72732e20496e20776f72642070726f636573736f72732c2074656d706c6174657320617265206120636f6d6d6f6e20666561747572652c207768696c65206175746f6d617469632066696c6c696e6720696e206f66207468652074656d706c61746573206973206f6674656e20726566657272656420746f206173206d61696c206d657267652e'),
+  ( 1002, X'546f6d6361742073746172746564206f6666206173206120736572766c6574207265666572656e636520696d706c656d656e746174696f6e206279204a616d65732044756e63616e204461766964736f6e2c206120736f667477617265206172636869746563742061742053756e204d6963726f73797374656d732e204865206c617465722068656c706564206d616b65207468652070726f6a656374206f70656e20736f7572636520616e6420706c617965642061206b657920726f6c6520696e2069747320646f6e6174696f6e2062792053756e204d6963726f73797374656d7320746f207468652041706163686520536f66747761726520466f756e646174696f6e2e5b31305d205468652041706163686520416e7420736f667477617265206275696c64206175746f6d6174696f6e20746f6f6c2077617320646576656c6f706564206173206120736964652d656666656374206f6620746865206372656174696f6e206f6620546f6d63617420617320616e206f70656e20736f757263652070726f6a6563742e0a4461766964736f6e2068616420696e697469616c6c7920686f7065642074686174207468652070726f6a65637420776f756c64206265636f6d65206f70656e20736f757263656420616e642c2073696e6365206d616e79206f70656e20736f757263652070726f6a6563747320686164204f275265696c6c7920626f6f6b73206173736f6369617465642077697468207468656d20666561747572696e6720616e20616e696d616c206f6e2074686520636f7665722c2068652077616e74656420746f206e616d65207468652070726f6a65637420616674657220616e20616e696d616c2e2048652063616d65207570207769746820546f6d6361742073696e636520686520726561736f6e65642074686520616e696d616c20726570726573656e74656420736f6d657468696e67207468617420636f756c642066656e6420666f7220697473656c662e20416c74686f7567682074686520746f6d6361742077617320616c726561647920696e2075736520666f7220616e6f74686572204f275265696c6c79207469746c652c5b31315d20686973207769736820746f2073656520616e20616e696d616c20636f766572206576656e7475616c6c792063616d652074727565207768656e204f275265696c6c79207075626c697368656420746865697220546f6d63617420626f6f6b2077697468206120736e6f77206c656f70617264206f6e2074686520636f76657220696e20323030332e5b31325d'),
+  ( 1003, X'54686520537072696e672057656220466c6f772070726f6a656374207374617274656420617320612073696d706c6520657874656e73696f6e20746f2074686520537072696e6720576562204d5643206672616d65776f726b2070726f766964696e672077656220666c6f772066756e6374696f6e616c6974792c20646576656c6f70656420627920457277696e205665727661657420696e20323030342e20496e2032303035207468652070726f6a6563742077617320696e74726f647563656420696e746f2074686520537072696e6720706f7274666f6c696f206279204b6569746820446f6e616c6420616e64206772657720696e746f20746865206f6666696369616c20537072696e67207375622d70726f6a656374206974206973206e6f772e205468652066697273742070726f64756374696f6e20726561647920312e302072656c6561736520776173206d616465206f6e20323030362d31302d32362e2056657273696f6e20322e302c2066697273742072656c6561736564206f6e20323030382d30342d32392c207361772061206d616a6f7220696e7465726e616c2072656f7267616e697a6174696f6e206f6620746865206672616d65776f726b20746f20616c6c6f772062657474657220696e746567726174696f6e2077697468204a6176615365727665722046616365732e'),
+  ( 1004, X'2049742069732061207365727665722d62617365642073797374656d20746861742072756e7320696e20736572766c657420636f6e7461696e65727320737563682061732041706163686520546f6d6361742e20497420737570706f7274732076657273696f6e20636f6e74726f6c20746f6f6c732c20696e636c7564696e6720416363755265762c204356532c2053756276657273696f6e2c204769742c204d657263757269616c2c20506572666f7263652c2054442f4f4d532c20436c6561724361736520616e64205254432c20616e642063616e20657865637574652041706163686520416e742c20417061636865204d6176656e20616e64207362742062617365642070726f6a656374732061732077656c6c20617320617262697472617279207368656c6c207363726970747320616e642057696e646f777320626174636820636f6d6d616e64732e205468652063726561746f72206f66204a656e6b696e73206973204b6f6873756b65204b61776167756368692e5b345d2052656c656173656420756e64657220746865204d4954204c6963656e73652c204a656e6b696e73206973206672656520736f6674776172652e5b355d0a4275696c64732063616e2062652074726967676572656420627920766172696f7573206d65616e732c20666f72206578616d706c6520627920636f6d6d697420696e20612076657273696f6e20636f6e74726f6c2073797374656d2c206279207363686564756c696e672076696120612063726f6e2d6c696b65206d656368616e69736d20616e642062792072657175657374696e672061207370656369666963206275696c642055524c2e2049742063616e20616c736f2062652074726967676572656420616674657220746865206f74686572206275696c647320696e20746865207175657565206861766520636f6d706c657465642e204a656e6b696e732066756e6374696f6e616c6974792063616e20626520657874656e646564207769746820706c7567696e732e0a546865204a656e6b696e732070726f6a65637420776173206f726967696e616c6c79206e616d656420487564736f6e2c20616e64207761732072656e616d6564206166746572206120646973707574652077697468204f7261636c652c2077686963682068616420666f726b6564207468652070726f6a65637420616e6420636c61696d65642072696768747320746f207468652070726f6a656374206e616d652e20546865204f7261636c6520666f726b2c20487564736f6e2c20636f6e74696e75656420746f20626520646576656c6f70656420666f7220612074696d65206265666f7265206265696e6720646f6e6174656420746f207468652045636c6970736520466f756e646174696f6e2e204f7261636c65277320487564736f6e206973206e6f206c6f6e676572206d61696e7461696e65645b365d5b375d20616e642077617320616e6e6f756e636564206173206f62736f6c65746520696e20466562727561727920323031372e5b385d'),
+  ( 1005, X'416e67756c617220322e302077617320616e6e6f756e63656420617420746865206e672d4575726f706520636f6e666572656e63652032322d32332e204f63746f62657220323031342e5b395d5b31305d205468652064726173746963206368616e67657320696e2074686520322e302076657273696f6e206372656174656420636f6e736964657261626c6520636f6e74726f766572737920616d6f6e6720646576656c6f706572732e5b31315d204f6e20417072696c2033302c20323031352c2074686520416e67756c617220646576656c6f7065727320616e6e6f756e636564207468617420416e67756c61722032206d6f7665642066726f6d20416c70686120746f20446576656c6f70657220507265766965772e5b31325d20416e67756c61722032206d6f76656420746f204265746120696e20446563656d62657220323031352c5b31335d20616e64207468652066697273742072656c656173652063616e64696461746520776173207075626c697368656420696e204d617920323031362e5b31345d205468652066696e616c2076657273696f6e207761732072656c6561736564206f6e2053657074656d6265722031342c20323031362e416e67756c61722036207761732072656c6561736564206f6e204d617920342c20323031382e5b32305d2e20546869732069732061206d616a6f722072656c6561736520666f6375736564206c657373206f6e2074686520756e6465726c79696e67206672616d65776f726b2c20616e64206d6f7265206f6e2074686520746f6f6c636861696e20616e64206f6e206d616b696e672069742065617369657220746f206d6f766520717569636b6c79207769746820416e67756c617220696e20746865206675747572652c206c696b653a206e67207570646174652c206e67206164642c20416e67756c617220456c656d656e74732c20416e67756c6172204d6174657269616c202b2043444b20436f6d706f6e656e74732c20416e67756c6172204d6174657269616c205374617274657220436f6d706f6e656e74732c20434c4920576f726b7370616365732c204c69627261727920537570706f72742c2054726565205368616b61626c652050726f7669646572732c20416e696d6174696f6e7320506572666f726d616e636520496d70726f76656d656e74732c20616e642052784a532076362e'),
+  ( 1006, X'52656163742063616e20626520757365642061732061206261736520696e2074686520646576656c6f706d656e74206f662073696e676c652d70616765206f72206d6f62696c65206170706c69636174696f6e732c2061732069742773206f7074696d616c206f6e6c7920666f722069747320696e74656e64656420757365206f66206265696e672074686520717569636b657374206d6574686f6420746f2066657463682072617069646c79206368616e67696e6720646174612074686174206e6565647320746f206265207265636f726465642e20486f77657665722c206665746368696e672064617461206973206f6e6c792074686520626567696e6e696e67206f6620776861742068617070656e73206f6e20612077656220706167652c2077686963682069732077687920636f6d706c6578205265616374206170706c69636174696f6e7320757375616c6c7920726571756972652074686520757365206f66206164646974696f6e616c206c696272617269657320666f72207374617465206d616e6167656d656e742c20726f7574696e672c20616e6420696e746572616374696f6e207769746820616e204150492e205265616374207761732063726561746564206279204a6f7264616e2057616c6b652c206120736f66747761726520656e67696e6565722061742046616365626f6f6b2e2048652077617320696e666c75656e636564206279205848502c20616e2048544d4c20636f6d706f6e656e74206672616d65776f726b20666f72205048502e5b395d20497420776173206669727374206465706c6f796564206f6e2046616365626f6f6b2773206e6577736665656420696e203230313120616e64206c61746572206f6e20496e7374616772616d2e636f6d20696e20323031322e5b31305d20497420776173206f70656e2d736f7572636564206174204a53436f6e6620555320696e204d617920323031332e0a5265616374204e61746976652c20776869636820656e61626c6573206e617469766520416e64726f69642c20694f532c20616e642055575020646576656c6f706d656e7420776974682052656163742c2077617320616e6e6f756e6365642061742046616365626f6f6b27732052656163742e6a7320436f6e6620696e204665627275617279203230313520616e64206f70656e2d736f757263656420696e204d6172636820323031352e0a4f6e20417072696c2031382c20323031372c2046616365626f6f6b20616e6e6f756e6365642052656163742046696265722c2061206e657720636f726520616c676f726974686d206f66205265616374206672616d65776f726b206c69627261727920666f72206275696c64696e67207573657220696e74657266616365732e5b31315d2052656163742046696265722077617320746f206265636f6d652074686520666f756e646174696f6e206f6620616e792066757475726520696d70726f76656d656e747320616e64206665617475726520646576656c6f706d656e74206f6620746865205265616374206672616d65776f726b2e5b31325d5b6e65656473207570646174655d0a4f6e20417072696c2031392c20323031372c205265616374203336302056312e302e30207761732072656c656173656420746f20746865207075626c69632e5b31335d205468697320616c6c6f77656420646576656c6f70657273207769746820657870657269656e6365207573696e6720726561637420746f206a756d7020696e746f20565220646576656c6f706d656e742e');
@@ -0,0 +1,50 @@
+-- Moves articles.content into article_contents (see ArticleContent) and brings a database that
+-- Hibernate created with spring.jpa.hibernate.ddl-auto=update to the schema of db/migration V1.
+-- Run once, then start once with spring.flyway.baseline-on-migrate=true and
+-- spring.flyway.baseline-version=2, so that Flyway neither re-creates the tables nor re-seeds them.
+-- Statements are idempotent up to the DROP, so a failed run can be repeated.
+-- The bodies are copied as UTF-8 bytes; CompressedTextConverter reads them uncompressed and
+-- compresses each one on its next update. If article_contents was created with a text column:
+--   ALTER TABLE article_contents MODIFY content LONGBLOB NOT NULL;
+
+-- MySQL5Dialect created MyISAM tables, which ignore foreign keys
+ALTER TABLE articles ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS article_contents (
+  article_id BIGINT NOT NULL,
+  content LONGBLOB NOT NULL,
+  PRIMARY KEY (article_id),
+  CONSTRAINT fk_article_contents_article FOREIGN KEY (article_id)
+    REFERENCES articles (article_id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+INSERT INTO article_contents (article_id, content)
+  SELECT a.article_id, a.content
+  FROM articles a
+  WHERE a.content IS NOT NULL
+    AND NOT EXISTS (SELECT 1 FROM article_contents c WHERE c.article_id = a.article_id);
+
+-- the duplicate check relies on it; duplicate title+author pairs have to be resolved first
+SET @add_unique = IF((SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'articles'
+      AND index_name = 'uk_articles_title_author') = 0,
+  'ALTER TABLE articles ADD CONSTRAINT uk_articles_title_author UNIQUE (title, author)',
+  'DO 0');
+PREPARE add_unique FROM @add_unique;
+EXECUTE add_unique;
+DEALLOCATE PREPARE add_unique;
+
+-- Hibernate keeps the next article id here, see Article; it continues after the existing ids
+CREATE TABLE IF NOT EXISTS article_seq (
+  next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO article_seq (next_val)
+  SELECT n.next_val
+  FROM (SELECT GREATEST(10000, COALESCE(MAX(article_id), 0) + 100) AS next_val FROM articles) n
+  WHERE NOT EXISTS (SELECT 1 FROM article_seq);
+
+ALTER TABLE articles DROP COLUMN content,
+  DROP INDEX idx_articles_updated_at_article_id,
+  ADD INDEX idx_articles_updated_at_article_id (updated_at DESC, article_id DESC),
+  ADD INDEX idx_articles_category (category);
@@ -0,0 +1,40 @@
+package com.example.articlesapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * the startup settings of the prod profile
+ * @author platoiscoding.com
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "articles.startup.lazy-init=true")
+@AutoConfigureMockMvc
+public class LazyInitializationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    public void beansAreCreatedOnFirstUse() throws Exception {
+        assertTrue(beanFactory.containsSingleton("flywayInitializer"));
+        assertFalse(beanFactory.containsSingleton("articleRestController"));
+
+        mockMvc.perform(get("/api/articles").param("pageSize", "2"))
+                .andExpect(status().isOk());
+        assertTrue(beanFactory.containsSingleton("articleRestController"));
+    }
+}
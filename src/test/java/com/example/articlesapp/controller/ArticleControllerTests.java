@@ -0,0 +1,419 @@
+package com.example.articlesapp.controller;
+
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.repository.ArticleRepository;
+import com.example.articlesapp.service.ArticleService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultHandler;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.example.articlesapp.monitoring.StatementCountFilter.ROW_COUNT;
+import static com.example.articlesapp.monitoring.StatementCountFilter.STATEMENT_COUNT;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * @author platoiscoding.com
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ArticleControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void listingsRender() throws Exception {
+        read(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(view().name(ArticleController.INDEX_VIEW));
+        read(get("/articles").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(view().name(ArticleController.ARTICLE_PAGE_VIEW));
+    }
+
+    @Test
+    public void searchRendersHits() throws Exception {
+        mockMvc.perform(get("/search"))
+                .andExpect(status().isOk())
+                .andExpect(view().name(ArticleController.SEARCH_VIEW));
+        Article article = articleRepository.save(newArticle());
+        mockMvc.perform(post("/api/articles/search/rebuild"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/search").param("q", "\"" + article.getTitle() + "\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/article/" + article.getArticleId())));
+    }
+
+    @Test
+    public void invalidCursorIsBadRequest() throws Exception {
+        read(get("/articles").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void updateIssuesOneStatementPerQuery() throws Exception {
+        Article article = articleService.createArticle(newArticle());
+
+        MvcResult result = mockMvc.perform(post("/article/{id}/update", article.getArticleId())
+                .param("title", article.getTitle() + " updated")
+                .param("category", article.getCategory())
+                .param("author", article.getAuthor())
+                .param("description", article.getDescription())
+                .param("content", article.getContent())
+                .param("version", article.getVersion().toString()))
+                .andExpect(redirectedUrl("/article/" + article.getArticleId()))
+                .andReturn();
+
+        //title+author check, the read of the category and the updates of articles and article_contents
+        assertEquals(4, result.getRequest().getAttribute(STATEMENT_COUNT));
+        assertEquals(article.getTitle() + " updated",
+                articleRepository.findById(article.getArticleId()).get().getTitle());
+    }
+
+    @Test
+    public void updateWithoutVersionIsBadRequest() throws Exception {
+        Article article = articleService.createArticle(newArticle());
+
+        mockMvc.perform(post("/article/{id}/update", article.getArticleId())
+                .param("title", article.getTitle() + " updated")
+                .param("category", article.getCategory())
+                .param("author", article.getAuthor())
+                .param("description", article.getDescription())
+                .param("content", article.getContent()))
+                .andExpect(status().isBadRequest());
+        assertEquals(article.getTitle(), articleRepository.findById(article.getArticleId()).get().getTitle());
+    }
+
+    @Test
+    public void staleEditReturnsToTheFormWithTheSavedVersion() throws Exception {
+        Article article = articleService.createArticle(newArticle());
+        Article saved = new Article(article.getTitle(), "Category", "Author", "Description", "Saved first");
+        saved.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), saved);
+
+        MvcResult result = mockMvc.perform(post("/article/{id}/update", article.getArticleId())
+                .param("title", article.getTitle())
+                .param("category", "Category")
+                .param("author", "Author")
+                .param("description", "Description")
+                .param("content", "Saved second")
+                .param("version", article.getVersion().toString()))
+                .andExpect(redirectedUrl("/article/" + article.getArticleId() + "/edit"))
+                .andExpect(flash().attribute("savedArticle", hasProperty("content", is("Saved first"))))
+                //saving the form again overwrites the saved version
+                .andExpect(flash().attribute("article", hasProperty("version", is(article.getVersion() + 1))))
+                .andReturn();
+
+        mockMvc.perform(get("/article/{id}/edit", article.getArticleId()).flashAttrs(result.getFlashMap()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Someone else saved this article")))
+                .andExpect(content().string(containsString("Saved first")))
+                .andExpect(content().string(containsString("Saved second")));
+        assertEquals("Saved first", articleService.findById(article.getArticleId()).getContent());
+    }
+
+    @Test
+    public void duplicateTitleAndAuthorIsFieldError() throws Exception {
+        Article article = articleRepository.save(newArticle());
+
+        mockMvc.perform(post("/article/create")
+                .param("title", article.getTitle())
+                .param("category", "Other")
+                .param("author", article.getAuthor())
+                .param("description", "Description")
+                .param("content", "Content"))
+                .andExpect(redirectedUrl("/article/new"))
+                .andExpect(flash().attribute("org.springframework.validation.BindingResult.article",
+                        hasProperty("fieldErrorCount", is(1))));
+    }
+
+    @Test
+    public void deleteDoesNotLoadTheArticle() throws Exception {
+        Article article = articleService.createArticle(newArticle());
+
+        MvcResult result = mockMvc.perform(get("/article/{id}/delete", article.getArticleId()))
+                .andExpect(redirectedUrl("/articles"))
+                .andReturn();
+
+        //the locking read of the category, the delete, the tombstone and the category count
+        assertEquals(4, result.getRequest().getAttribute(STATEMENT_COUNT));
+        assertFalse(articleRepository.existsById(article.getArticleId()));
+    }
+
+    @Test
+    public void categoryFilterShowsOnlyItsArticles() throws Exception {
+        String category = "Facet " + System.nanoTime();
+        Article inCategory = newArticle();
+        inCategory.setCategory(category);
+        inCategory = articleService.createArticle(inCategory);
+        Article other = articleService.createArticle(newArticle());
+
+        read(get("/articles").param("category", category))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("category", category))
+                .andExpect(content().string(containsString(inCategory.getTitle())))
+                .andExpect(content().string(not(containsString(other.getTitle()))))
+                //the sidebar links to the category with its count
+                .andExpect(content().string(containsString("category=" + category.replace(" ", "%20"))));
+        assertEquals(1, articleService.countArticles(category));
+    }
+
+    @Test
+    public void deleteOfMissingArticleIsNotFound() throws Exception {
+        mockMvc.perform(get("/article/{id}/delete", -1))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void listingIsServedFromPageCacheUntilArticlesChange() throws Exception {
+        clearCaches();
+        String first = read(get("/articles").param("pageSize", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult cached = read(get("/articles").param("pageSize", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(first))
+                .andReturn();
+        assertEquals(0, cached.getRequest().getAttribute(STATEMENT_COUNT));
+
+        Article article = articleService.createArticle(newArticle());
+        read(get("/articles").param("pageSize", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(article.getTitle())));
+    }
+
+    @Test
+    public void articlePageShowsTheRenderedBody() throws Exception {
+        Article article = newArticle();
+        article.setContent("<em>First</em>\n\nSecond");
+        article = articleService.createArticle(article);
+
+        read(get("/article/{id}", article.getArticleId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<p>&lt;em&gt;First&lt;/em&gt;</p>\n<p>Second</p>")));
+    }
+
+    @Test
+    public void pageRenderedDuringAChangeIsNotCached() throws Exception {
+        clearCaches();
+        Article article = articleService.createArticle(newArticle());
+        MvcResult inFlight = mockMvc.perform(get("/articles").param("pageSize", "5")).andReturn();
+        assertTrue(inFlight.getRequest().isAsyncStarted());
+        //the page of the old title is read, then the article changes before it is rendered
+        inFlight.getAsyncResult();
+        Article changed = newArticle();
+        changed.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), changed);
+        mockMvc.perform(asyncDispatch(inFlight))
+                .andExpect(content().string(containsString(article.getTitle())));
+
+        read(get("/articles").param("pageSize", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(changed.getTitle())));
+    }
+
+    @Test
+    public void unchangedArticleIsNotModified() throws Exception {
+        Article article = articleService.createArticle(newArticle());
+        String etag = read(get("/article/{id}", article.getArticleId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", containsString("s-maxage=60")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        MvcResult result = read(get("/article/{id}", article.getArticleId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andReturn();
+        //the article is cached
+        assertEquals(0, result.getRequest().getAttribute(STATEMENT_COUNT));
+        //not cached: it is read on the ReadExecutor, the request thread is released before the check
+        clearCaches();
+        MvcResult inFlight = mockMvc.perform(get("/article/{id}", article.getArticleId()).header("If-None-Match", etag))
+                .andReturn();
+        assertTrue(inFlight.getRequest().isAsyncStarted());
+        mockMvc.perform(asyncDispatch(inFlight))
+                .andExpect(status().isNotModified());
+
+        Article updated = newArticle();
+        updated.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), updated);
+        read(get("/article/{id}", article.getArticleId()).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void secondEditInTheSameSecondIsModified() throws Exception {
+        Article article = articleService.createArticle(newArticle());
+        //DATETIME without fractions, as in MySQL before V7
+        Date second = new Date(System.currentTimeMillis() / 1000 * 1000);
+        Article first = newArticle();
+        first.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), first);
+        jdbcTemplate.update("UPDATE articles SET updated_at = ? WHERE article_id = ?", second, article.getArticleId());
+        String etag = read(get("/article/{id}", article.getArticleId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        Article secondEdit = newArticle();
+        secondEdit.setVersion(first.getVersion());
+        articleService.updateArticle(article.getArticleId(), secondEdit);
+        jdbcTemplate.update("UPDATE articles SET updated_at = ? WHERE article_id = ?", second, article.getArticleId());
+        read(get("/article/{id}", article.getArticleId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(secondEdit.getTitle())));
+    }
+
+    @Test
+    public void unchangedListingIsNotModified() throws Exception {
+        String etag = read(get("/articles"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        //served from the page cache and from the controller
+        read(get("/articles").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        clearCaches();
+        read(get("/articles").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        Article article = articleService.createArticle(newArticle());
+        etag = read(get("/articles").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        //an edit changes the titles and descriptions of the listing
+        Article edited = newArticle();
+        edited.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), edited);
+        read(get("/articles").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void listingReadBeforeTheCommitIsNotServedAfterIt() throws Exception {
+        Article article = articleService.createArticle(newArticle());
+        read(get("/articles"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(article.getTitle())));
+
+        Article updated = newArticle();
+        updated.setVersion(article.getVersion());
+        ExecutorService otherClient = Executors.newSingleThreadExecutor();
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                articleService.updateArticle(article.getArticleId(), updated);
+                //renders and caches the listing without the update
+                try {
+                    otherClient.submit(() -> read(get("/articles"))
+                            .andExpect(content().string(containsString(article.getTitle())))).get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return null;
+            });
+        } finally {
+            otherClient.shutdown();
+        }
+
+        read(get("/articles"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(updated.getTitle())));
+    }
+
+    @Test
+    public void metricsArePublishedForPrometheus() throws Exception {
+        clearCaches();
+        MvcResult result = read(get("/articles"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertTrue((int) result.getRequest().getAttribute(ROW_COUNT) > 0);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("articles_request_rows_count{uri=\"/articles\",}")))
+                .andExpect(content().string(containsString("articles_service_seconds_bucket")))
+                .andExpect(content().string(containsString("articles_view_render_seconds_count{view=\"articles/allArticles\",}")))
+                .andExpect(content().string(containsString("articles_jdbc_execute_seconds_count")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")));
+    }
+
+    /**
+     * the read endpoints complete asynchronously unless they answer from a cache or with 304
+     */
+    private ResultActions read(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            return mockMvc.perform(asyncDispatch(result));
+        }
+        return new ResultActions() {
+            @Override
+            public ResultActions andExpect(ResultMatcher matcher) throws Exception {
+                matcher.match(result);
+                return this;
+            }
+
+            @Override
+            public ResultActions andDo(ResultHandler handler) throws Exception {
+                handler.handle(result);
+                return this;
+            }
+
+            @Override
+            public MvcResult andReturn() {
+                return result;
+            }
+        };
+    }
+
+    private void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private static Article newArticle() {
+        return new Article("Statements " + System.nanoTime(), "Category", "Author", "Description", "Content");
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.articlesapp.controller;
+
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.repository.ArticleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.example.articlesapp.controller.ArticleRestController.NDJSON;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * @author platoiscoding.com
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ArticleRestControllerTests {
+
+    private static final String JSON = "{\"title\":\"%s\",\"category\":\"Category\",\"author\":\"Author\","
+            + "\"description\":\"Description\",\"content\":\"Content\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Test
+    public void crud() throws Exception {
+        String title = "Rest " + System.nanoTime();
+        String location = mockMvc.perform(post("/api/articles")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(JSON, title)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.title", is(title)))
+                .andReturn().getResponse().getHeader("Location");
+
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", is("Content")));
+
+        mockMvc.perform(post("/api/articles")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(JSON, title)))
+                .andExpect(status().isConflict());
+
+        //the update is based on a version
+        mockMvc.perform(put(location)
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(JSON, title + " updated")))
+                .andExpect(status().isBadRequest());
+        String versioned = String.format(JSON, title + " updated").replace("}", ",\"version\":0}");
+        mockMvc.perform(put(location).contentType(MediaType.APPLICATION_JSON).content(versioned))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is(title + " updated")))
+                .andExpect(jsonPath("$.version", is(1)));
+        mockMvc.perform(put(location).contentType(MediaType.APPLICATION_JSON).content(versioned))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(delete(location)).andExpect(status().isNoContent());
+        mockMvc.perform(get(location)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void createIgnoresAVersion() throws Exception {
+        String json = String.format(JSON, "Versioned " + System.nanoTime()).replace("}", ",\"version\":3}");
+        mockMvc.perform(post("/api/articles").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version", is(0)));
+    }
+
+    @Test
+    public void invalidArticleIsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/articles")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(JSON, "x")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("title")));
+    }
+
+    @Test
+    public void cursorPaging() throws Exception {
+        articleRepository.save(new Article("Paging " + System.nanoTime(), "Category", "Author", "Description", "Content"));
+        articleRepository.save(new Article("Paging " + System.nanoTime(), "Category", "Author", "Description", "Content"));
+
+        String cursor = mockMvc.perform(get("/api/articles").param("pageSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].description", is("Description")))
+                .andExpect(jsonPath("$.content[0].content").doesNotExist())
+                .andReturn().getResponse().getContentAsString()
+                .replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get("/api/articles").param("pageSize", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.number", is(1)))
+                .andExpect(jsonPath("$.previousCursor", notNullValue()));
+
+        mockMvc.perform(get("/api/articles").param("pageSize", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void changeFeedResumesAfterTheToken() throws Exception {
+        //the end of the feed, after the articles of the other tests
+        String token = null;
+        String batch;
+        do {
+            batch = changes(token, 100);
+            token = nextToken(batch);
+        } while (batch.contains("\"hasMore\":true"));
+        assertEquals(token, nextToken(changes(token, 100)));
+
+        String title = "Changes " + System.nanoTime();
+        String updated = mockMvc.perform(post("/api/articles")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(JSON, title + " updated")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        String deleted = mockMvc.perform(post("/api/articles")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(JSON, title + " deleted")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        mockMvc.perform(put(updated).contentType(MediaType.APPLICATION_JSON)
+                .content(String.format(JSON, title + " updated").replace("}", ",\"version\":0}")))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(deleted)).andExpect(status().isNoContent());
+        //changes of the current millisecond are not in the feed yet
+        Thread.sleep(10);
+
+        //one change per batch, in the order of the last change of each article
+        token = nextToken(mockMvc.perform(get("/api/articles/changes").param("since", token).param("pageSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].type", is("UPSERT")))
+                .andExpect(jsonPath("$.changes[0].article.title", is(title + " updated")))
+                .andExpect(jsonPath("$.changes[0].article.content", is("Content")))
+                .andExpect(jsonPath("$.changes[0].article.version", is(1)))
+                .andExpect(jsonPath("$.hasMore", is(true)))
+                .andReturn().getResponse().getContentAsString());
+        token = nextToken(mockMvc.perform(get("/api/articles/changes").param("since", token).param("pageSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].type", is("DELETE")))
+                .andExpect(jsonPath("$.changes[0].articleId", is(Integer.valueOf(deleted.replaceAll(".*/", "")))))
+                .andExpect(jsonPath("$.changes[0].article").doesNotExist())
+                .andExpect(jsonPath("$.hasMore", is(false)))
+                .andReturn().getResponse().getContentAsString());
+        mockMvc.perform(get("/api/articles/changes").param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(0)))
+                .andExpect(jsonPath("$.nextToken", is(token)));
+
+        mockMvc.perform(get("/api/articles/changes").param("since", "not a token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String changes(String since, int pageSize) throws Exception {
+        return mockMvc.perform(get("/api/articles/changes").param("since", since == null ? "" : since)
+                .param("pageSize", String.valueOf(pageSize)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static String nextToken(String batch) {
+        return batch.replaceAll(".*\"nextToken\":\"([^\"]+)\".*", "$1");
+    }
+
+    @Test
+    public void importSkipsInvalidRowsAndDuplicates() throws Exception {
+        String title = "Import " + System.nanoTime();
+        String csv = "title,category,author,description,content\n"
+                + title + " 1,Category,Author,Description,Content\n"
+                + title + " 2,Category,Author,Description,Content\n"
+                + title + " 1,Category,Author,Description,Content\n"        //duplicate
+                + "x,Category,Author,Description,Content\n";                 //title too short
+        mockMvc.perform(multipart("/api/articles/import")
+                .file(new MockMultipartFile("file", "articles.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read", is(4)))
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.duplicates", is(1)))
+                .andExpect(jsonPath("$.invalid", is(1)));
+
+        String ndjson = String.format(JSON, title + " 2") + "\n" + String.format(JSON, title + " 3") + "\n";
+        mockMvc.perform(multipart("/api/articles/import")
+                .file(new MockMultipartFile("file", "articles.ndjson", NDJSON, ndjson.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.duplicates", is(1)));
+    }
+
+    @Test
+    public void exportedArticlesCanBeImported() throws Exception {
+        String title = "Reimport " + System.nanoTime();
+        //as written by the export, with id, version and timestamps
+        String ndjson = String.format(JSON, title + " 1").replace("}", ",\"articleId\":1,\"version\":2}") + "\n"
+                + String.format(JSON, title + " 2").replace("}", ",\"articleId\":2,\"version\":0}") + "\n";
+        mockMvc.perform(multipart("/api/articles/import")
+                .file(new MockMultipartFile("file", "articles.ndjson", NDJSON, ndjson.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)));
+    }
+
+    @Test
+    public void exportStreamsOneLinePerArticle() throws Exception {
+        articleRepository.save(new Article("Export " + System.nanoTime(), "Category", "Author", "Description", "Content"));
+
+        MvcResult result = mockMvc.perform(get("/api/articles/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //articles.export.timeout-ms, not spring.mvc.async.request-timeout
+        assertEquals(600000, result.getRequest().getAsyncContext().getTimeout());
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ArticleRestController.NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(articleRepository.count(), lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"") && line.endsWith("}"), line);
+        }
+    }
+}
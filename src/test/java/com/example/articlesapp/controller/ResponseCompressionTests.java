@@ -0,0 +1,72 @@
+package com.example.articlesapp.controller;
+
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.service.ArticleService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * compression is done by Tomcat, so these requests go through a running server
+ * @author platoiscoding.com
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ResponseCompressionTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Test
+    public void articlePagesAreGzipped() throws IOException {
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 8192) {
+            content.append("Responses of more than a kilobyte are compressed. ");
+        }
+        Article article = articleService.createArticle(new Article("Gzip " + System.nanoTime(),
+                "Category", "Author", "Description", content.toString()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> gzipped = restTemplate.exchange("/article/{id}", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class, article.getArticleId());
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertThat(gunzip(gzipped.getBody()), containsString(article.getTitle()));
+
+        ResponseEntity<byte[]> plain = restTemplate.getForEntity("/article/{id}", byte[].class, article.getArticleId());
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzipped.getBody().length < plain.getBody().length / 3);
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.articlesapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * the resized backgrounds are written by StaticAssetBuilder in the process-classes phase
+ * @author platoiscoding.com
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StaticResourceTests {
+
+    private static final Pattern BACKGROUND = Pattern.compile("/img/pexels/background3(-\\d+w)?-[0-9a-f]{32}\\.jpg");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void pagesLinkFingerprintedBackgrounds() throws Exception {
+        MvcResult index = mockMvc.perform(get("/")).andReturn();
+        if (index.getRequest().isAsyncStarted()) {
+            index = mockMvc.perform(asyncDispatch(index)).andReturn();
+        }
+        List<String> urls = new ArrayList<>();
+        Matcher matcher = BACKGROUND.matcher(index.getResponse().getContentAsString());
+        while (matcher.find()) {
+            urls.add(matcher.group());
+        }
+        //640 and 1280 pixels wide and the original
+        assertEquals(3, urls.size());
+
+        long[] sizes = new long[urls.size()];
+        for (int i = 0; i < urls.size(); i++) {
+            MvcResult image = mockMvc.perform(get(urls.get(i)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                    .andReturn();
+            sizes[i] = image.getResponse().getContentAsByteArray().length;
+        }
+        //a phone loads a fraction of the original
+        assertTrue(sizes[0] * 4 < sizes[2]);
+        assertTrue(sizes[1] < sizes[2]);
+    }
+
+    @Test
+    public void unversionedUrlsAreRevalidated() throws Exception {
+        mockMvc.perform(get("/img/pexels/background3.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        mockMvc.perform(get("/img/pexels/background3-00000000000000000000000000000000.jpg"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.articlesapp.datasource;
+
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.service.ArticleService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.servlet.http.Cookie;
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * two H2 databases as primary and replica; the replica is a copy of the primary made before each test
+ *
+ * @author platoiscoding.com
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTests.PRIMARY_URL,
+        "articles.datasource.replica-urls=" + ReplicaRoutingTests.REPLICA_URL})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:articles_primary;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    static final String REPLICA_URL = "jdbc:h2:mem:articles_replica;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void replicate() throws Exception {
+        File script = File.createTempFile("articles", ".sql");
+        try {
+            execute(PRIMARY_URL, "SCRIPT TO '" + script.getAbsolutePath() + "'");
+            execute(REPLICA_URL, "DROP ALL OBJECTS");
+            execute(REPLICA_URL, "RUNSCRIPT FROM '" + script.getAbsolutePath() + "'");
+        } finally {
+            Files.delete(script.toPath());
+        }
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    public void readOnlyTransactionsReadFromReplica() throws Exception {
+        Article article = articleService.getLatestEntry();
+        execute(REPLICA_URL, "UPDATE articles SET title = 'Replica' WHERE article_id = " + article.getArticleId());
+
+        assertEquals("Replica", articleService.getLatestEntry().getTitle());
+    }
+
+    @Test
+    public void otherClientsReadTheWriteFromTheCaches() throws Exception {
+        Article article = articleService.getLatestEntry();
+        //cached before the write
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/article/{id}", article.getArticleId())).andReturn()))
+                .andExpect(status().isOk());
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/articles")).andReturn()))
+                .andExpect(status().isOk());
+
+        Article updated = newArticle();
+        updated.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), updated);
+
+        //no stickiness cookie, and the replica has not received the update
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/article/{id}", article.getArticleId())).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(updated.getTitle())));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/articles")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(updated.getTitle())));
+    }
+
+    @Test
+    public void writesGoToPrimary() throws Exception {
+        Article article = articleService.createArticle(newArticle());
+
+        assertEquals(1, count(PRIMARY_URL, article.getArticleId()));
+        assertEquals(0, count(REPLICA_URL, article.getArticleId()));
+        assertNotEquals(article.getArticleId(), articleService.getLatestEntry().getArticleId());
+    }
+
+    /**
+     * the change feed is not cached, it reads from the replica unless the client just wrote
+     */
+    @Test
+    public void clientReadsItsOwnWrites() throws Exception {
+        Article article = newArticle();
+        MvcResult created = mockMvc.perform(post("/article/create")
+                .param("title", article.getTitle())
+                .param("category", article.getCategory())
+                .param("author", article.getAuthor())
+                .param("description", article.getDescription())
+                .param("content", article.getContent()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(cookie().exists(PrimaryStickinessInterceptor.COOKIE))
+                .andReturn();
+        Cookie sticky = created.getResponse().getCookie(PrimaryStickinessInterceptor.COOKIE);
+
+        //not replicated yet
+        mockMvc.perform(get("/api/articles/changes").param("pageSize", "100"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString(article.getTitle()))));
+
+        mockMvc.perform(get("/api/articles/changes").param("pageSize", "100").cookie(sticky))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(article.getTitle())));
+    }
+
+    @Test
+    public void poolsAreClosedWithTheDataSource() throws Exception {
+        HikariDataSource primary = pool(PRIMARY_URL);
+        HikariDataSource replica = pool(REPLICA_URL);
+        new ReplicaRoutingDataSource(primary, Collections.singletonList(replica)).destroy();
+
+        assertTrue(primary.isClosed());
+        assertTrue(replica.isClosed());
+    }
+
+    private static HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        return pool;
+    }
+
+    private static Article newArticle() {
+        return new Article("Replica " + System.nanoTime(), "Category", "Author", "Description", "Content");
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int count(String url, long articleId) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT COUNT(*) FROM articles WHERE article_id = " + articleId)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.articlesapp.repository;
+
+import com.example.articlesapp.model.ArticleSummary;
+import com.example.articlesapp.monitoring.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Date;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * runs EXPLAIN on the SQL Hibernate generates for the listing and lookup queries;
+ * the plans are H2's, the indexes are the same in the MySQL migrations
+ *
+ * @author platoiscoding.com
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.articlesapp.repository.ArticleIndexTests$RecordingStatementInspector")
+public class ArticleIndexTests {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "updatedAt", "articleId");
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void analyze() {
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    public void listingReadsTheUpdatedAtIndexInOrder() {
+        articleRepository.findSliceBy(PageRequest.of(0, 10, NEWEST_FIRST), ArticleSummary.class);
+        assertThat(explainLastStatement(), allOf(
+                containsString("IDX_ARTICLES_UPDATED_AT_ARTICLE_ID"), containsString("index sorted")));
+
+        articleRepository.findByUpdatedAtLessThanOrUpdatedAtAndArticleIdLessThan(new Date(), new Date(), 1000L,
+                PageRequest.of(0, 10, NEWEST_FIRST), ArticleSummary.class);
+        assertThat(explainLastStatement(), allOf(
+                containsString("IDX_ARTICLES_UPDATED_AT_ARTICLE_ID"), containsString("index sorted")));
+    }
+
+    @Test
+    public void duplicateCheckUsesTheTitleAuthorIndex() {
+        articleRepository.existsByTitleAndAuthorAndArticleIdNot("Title", "Author", 1000L);
+        assertThat(explainLastStatement(), containsString("UK_ARTICLES_TITLE_AUTHOR"));
+    }
+
+    @Test
+    public void lookupsUseThePrimaryKey() {
+        articleRepository.findCategoryByArticleId(1000L);
+        assertThat(explainLastStatement(), allOf(containsString("PRIMARY_KEY"), not(containsString("tableScan"))));
+    }
+
+    /**
+     * H2 seeks on the category and sorts its rows, MySQL also reads them in index order;
+     * for the OR of the keyset condition H2 falls back to the listing index, MySQL reads two ranges of the category index
+     */
+    @Test
+    public void categoryListingSeeksOnTheCategoryIndex() {
+        articleRepository.findByCategory("Java", PageRequest.of(0, 10, NEWEST_FIRST), ArticleSummary.class);
+        assertThat(explainLastStatement(), containsString("IDX_ARTICLES_CATEGORY_UPDATED_AT: CATEGORY = "));
+
+        articleRepository.findByCategoryAndUpdatedAtLessThanOrCategoryAndUpdatedAtAndArticleIdLessThan(
+                "Java", new Date(), "Java", new Date(), 1000L, PageRequest.of(0, 10, NEWEST_FIRST), ArticleSummary.class);
+        assertThat(explainLastStatement(), not(containsString("tableScan")));
+    }
+
+    private String explainLastStatement() {
+        return explain(RecordingStatementInspector.LAST.get());
+    }
+
+    /**
+     * @param sql   statement with ? parameters, they are bound to null
+     * @return      the plan
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+        }, resultSet -> {
+            resultSet.next();
+            return resultSet.getString(1);
+        });
+    }
+
+    /**
+     * remembers the last statement of the thread besides counting it
+     */
+    public static class RecordingStatementInspector extends StatementCounter {
+
+        static final ThreadLocal<String> LAST = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            LAST.set(sql);
+            return super.inspect(sql);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.articlesapp.service;
+
+import com.example.articlesapp.exception.BadRequestException;
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.SearchHit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author platoiscoding.com
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class ArticleSearchServiceTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleSearchService articleSearchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void indexFollowsCreateUpdateAndDelete() {
+        String word = "zeppelin" + System.nanoTime();
+        Article article = articleService.createArticle(new Article("Airships", "History", "Author",
+                "Description", "The " + word + " <b>flew</b> over the lake."));
+
+        Page<SearchHit> hits = articleSearchService.search(word, PageRequest.of(0, 10));
+        assertEquals(1, hits.getTotalElements());
+        SearchHit hit = hits.getContent().get(0);
+        assertEquals(article.getArticleId(), hit.getArticleId());
+        assertEquals("Airships", hit.getTitle());
+        //highlighted and escaped
+        assertTrue(hit.getFragment().contains("<mark>" + word + "</mark>"), hit.getFragment());
+        assertTrue(hit.getFragment().contains("&lt;b&gt;flew"), hit.getFragment());
+
+        Article details = new Article("Airships " + word, "History", "Author", "Description", "Content");
+        details.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), details);
+        hits = articleSearchService.search(word, PageRequest.of(0, 10));
+        assertEquals(1, hits.getTotalElements());
+        assertEquals("Airships " + word, hits.getContent().get(0).getTitle());
+
+        articleService.deleteArticle(article.getArticleId());
+        assertEquals(0, articleSearchService.search(word, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    public void emptyInMemoryIndexIsBuiltOnStartup() throws Exception {
+        String word = "balloon" + System.nanoTime();
+        Article article = articleService.createArticle(new Article("Balloons", "History", "Author",
+                "Description", word));
+
+        //another in-memory index starting up, articles.search.rebuild-on-startup is false; no rebuild() before the search
+        ArticleSearchServiceImpl index = new ArticleSearchServiceImpl();
+        ReflectionTestUtils.setField(index, "articleService", articleService);
+        ReflectionTestUtils.setField(index, "indexDir", "");
+        index.open();
+        try {
+            index.rebuildOnStartup();
+            Page<SearchHit> hits = index.search(word, PageRequest.of(0, 10));
+            assertEquals(1, hits.getTotalElements());
+            assertEquals(article.getArticleId(), hits.getContent().get(0).getArticleId());
+        } finally {
+            index.close();
+            articleService.deleteArticle(article.getArticleId());
+        }
+    }
+
+    @Test
+    public void rebuildIndexesAllArticles() {
+        assertEquals(articleService.countArticles(), articleSearchService.rebuild());
+    }
+
+    @Test
+    public void invalidQueryIsBadRequest() {
+        assertThrows(BadRequestException.class, () -> articleSearchService.search("title:(", PageRequest.of(0, 10)));
+        assertThrows(BadRequestException.class, () ->
+                articleSearchService.search("title", PageRequest.of(Integer.MAX_VALUE / 10, 100)));
+    }
+
+    @Test
+    public void rolledBackArticleIsNotIndexed() {
+        String word = "dirigible" + System.nanoTime();
+        new TransactionTemplate(transactionManager).execute(status -> {
+            articleService.createArticle(new Article("Dirigibles", "History", "Author", "Description", word));
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals(0, articleSearchService.search(word, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    public void changesDuringTheRebuildAreAppliedAfterIt() throws Exception {
+        Article deleted = new Article("Removed", "History", "Author", "Description", "Content");
+        deleted.setArticleId(1L);
+        Article edited = new Article("Before", "History", "Author", "Description", "Content");
+        edited.setArticleId(2L);
+        Article saved = new Article("After", "History", "Author", "Description", "Content");
+        saved.setArticleId(2L);
+
+        //a separate index whose articles are read from a snapshot taken before both changes were committed
+        ArticleSearchServiceImpl index = new ArticleSearchServiceImpl();
+        ArticleService snapshot = mock(ArticleService.class);
+        doAnswer(invocation -> {
+            index.remove(deleted.getArticleId());
+            index.index(Collections.singletonList(saved));
+            Consumer<Article> action = invocation.getArgument(0);
+            action.accept(deleted);
+            action.accept(edited);
+            return null;
+        }).when(snapshot).forEachArticle(any());
+        ReflectionTestUtils.setField(index, "articleService", snapshot);
+        ReflectionTestUtils.setField(index, "indexDir", "");
+        index.open();
+        try {
+            assertEquals(2, index.rebuild());
+            assertEquals(0, index.search("Removed", PageRequest.of(0, 10)).getTotalElements());
+            assertEquals(0, index.search("Before", PageRequest.of(0, 10)).getTotalElements());
+            assertEquals(1, index.search("After", PageRequest.of(0, 10)).getTotalElements());
+            assertEquals(1, index.search("Author", PageRequest.of(0, 10)).getTotalElements());
+        } finally {
+            index.close();
+        }
+    }
+}
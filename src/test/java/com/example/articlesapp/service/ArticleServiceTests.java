@@ -0,0 +1,404 @@
+package com.example.articlesapp.service;
+
+import com.example.articlesapp.exception.BadRequestException;
+import com.example.articlesapp.exception.DuplicateArticleException;
+import com.example.articlesapp.exception.ResourceNotFoundException;
+import com.example.articlesapp.exception.StaleArticleException;
+import com.example.articlesapp.model.Article;
+import com.example.articlesapp.model.ArticleSummary;
+import com.example.articlesapp.model.CategoryCount;
+import com.example.articlesapp.model.KeysetPage;
+import com.example.articlesapp.repository.ArticleContentRepository;
+import com.example.articlesapp.repository.ArticleRepository;
+import com.example.articlesapp.repository.CategoryCountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author platoiscoding.com
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class ArticleServiceTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleContentRepository articleContentRepository;
+
+    @Autowired
+    private CategoryCountRepository categoryCountRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        articleRepository.deleteAll();
+        //the repository bypasses the counts of the service
+        categoryCountRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        //same updatedAt for some articles, the articleId breaks the tie
+        Date updatedAt = new Date(1546300800000L);
+        for (int i = 0; i < 12; i++) {
+            Article article = new Article("Title " + i, "Category", "Author", "Description", "Content");
+            article.setUpdatedAt(i % 3 == 0 ? updatedAt : new Date(updatedAt.getTime() + i * 1000L));
+            articleService.createArticle(article);
+        }
+    }
+
+    @Test
+    public void keysetPaginationVisitsEveryArticleOnce() {
+        List<Long> ids = new ArrayList<>();
+        KeysetPage<ArticleSummary> page = articleService.findKeysetPage(null, null, 5, ArticleSummary.class);
+        assertFalse(page.hasPrevious());
+        page.forEach(article -> ids.add(article.getArticleId()));
+        while (page.hasNext()) {
+            page = articleService.findKeysetPage(null, page.getNextCursor(), 5, ArticleSummary.class);
+            page.forEach(article -> ids.add(article.getArticleId()));
+        }
+        assertEquals(2, page.getNumber());
+        assertEquals(12, ids.size());
+        assertEquals(12, ids.stream().distinct().count());
+
+        //back to the first page
+        KeysetPage<ArticleSummary> previous = articleService.findKeysetPage(null, page.getPreviousCursor(), 5, ArticleSummary.class);
+        previous = articleService.findKeysetPage(null, previous.getPreviousCursor(), 5, ArticleSummary.class);
+        assertEquals(0, previous.getNumber());
+        assertFalse(previous.hasPrevious());
+        assertEquals(ids.get(0).longValue(), previous.getContent().get(0).getArticleId());
+        assertEquals(ids.get(4).longValue(), previous.getContent().get(4).getArticleId());
+    }
+
+    @Test
+    public void latestEntriesAreNewestFirst() {
+        Article newest = articleService.createArticle(new Article("Newest", "Category", "Author", "Description", "Content"));
+        assertEquals(newest.getArticleId(), articleService.getLatestEntry().getArticleId());
+
+        List<Article> latest = articleService.getLatestEntries(3);
+        assertEquals(3, latest.size());
+        assertEquals(newest.getArticleId(), latest.get(0).getArticleId());
+        assertTrue(latest.get(1).getArticleId() > latest.get(2).getArticleId());
+    }
+
+    @Test
+    public void forEachArticleVisitsAllArticles() {
+        List<Long> ids = new ArrayList<>();
+        articleService.forEachArticle(article -> ids.add(article.getArticleId()));
+        assertEquals(12, ids.size());
+    }
+
+    @Test
+    public void contentIsOnlyLoadedByFindById() {
+        Article latest = articleService.getLatestEntry();
+        assertNull(latest.getContent());
+        assertNull(articleService.findAll(PageRequest.of(0, 5)).getContent().get(0).getContent());
+        assertEquals("Content", articleService.findById(latest.getArticleId()).getContent());
+
+        Article details = new Article("Updated", "Category", "Author", "Description", "Updated content");
+        details.setVersion(latest.getVersion());
+        articleService.updateArticle(latest.getArticleId(), details);
+        assertEquals("Updated content", articleService.findById(latest.getArticleId()).getContent());
+
+        //the database removes the content with the article
+        articleService.deleteArticle(latest.getArticleId());
+        assertFalse(articleContentRepository.existsById(latest.getArticleId()));
+    }
+
+    @Test
+    public void longContentIsStoredCompressed() {
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 4096) {
+            content.append("Articles are stored with their content in a separate table. ");
+        }
+        Article article = articleService.createArticle(
+                new Article("Compressed", "Category", "Author", "Description", content.toString()));
+
+        byte[] stored = jdbcTemplate.queryForObject("SELECT content FROM article_contents WHERE article_id = ?",
+                byte[].class, article.getArticleId());
+        assertTrue(stored.length < content.length() / 4);
+        assertEquals(content.toString(), articleService.findById(article.getArticleId()).getContent());
+        //short bodies are not worth it
+        assertEquals("Content".length(), jdbcTemplate.queryForObject(
+                "SELECT LENGTH(content) FROM article_contents WHERE article_id = ?", Integer.class,
+                articleService.getLatestEntries(2).get(1).getArticleId()).intValue());
+    }
+
+    @Test
+    public void noStaleReadsAfterUpdate() {
+        Article article = articleService.getLatestEntry();
+        long id = article.getArticleId();
+        //second read comes from the cache
+        assertSame(articleService.findById(id), articleService.findById(id));
+        assertEquals(article.getArticleId(),
+                articleService.findAllSummaries(PageRequest.of(0, 20)).getContent().get(11).getArticleId());
+        articleService.findKeysetPage(null, null, 5, ArticleSummary.class);
+
+        Article details = new Article("Updated", "Category", "Author", "Description", "Content");
+        details.setVersion(article.getVersion());
+        articleService.updateArticle(id, details);
+
+        assertEquals("Updated", articleService.findById(id).getTitle());
+        assertEquals("Updated", articleService.findAllSummaries(PageRequest.of(0, 20)).getContent().get(11).getTitle());
+        //the update made it the newest article
+        assertEquals("Updated", articleService.findKeysetPage(null, null, 5, ArticleSummary.class).getContent().get(0).getTitle());
+    }
+
+    @Test
+    public void noStaleReadsAfterDelete() {
+        long id = articleService.getLatestEntry().getArticleId();
+        articleService.findById(id);
+        assertEquals(12, articleService.findAllSummaries(PageRequest.of(0, 20)).getNumberOfElements());
+
+        articleService.deleteArticle(id);
+
+        assertThrows(ResourceNotFoundException.class, () -> articleService.findById(id));
+        assertEquals(11, articleService.findAllSummaries(PageRequest.of(0, 20)).getNumberOfElements());
+    }
+
+    @Test
+    public void titleAndAuthorMustBeUnique() {
+        Article existing = articleService.getLatestEntry();
+        assertTrue(articleService.titleAndAuthorValid(existing));
+
+        Article copy = new Article(existing.getTitle(), "Other", existing.getAuthor(), "Description", "Content");
+        assertFalse(articleService.titleAndAuthorValid(copy));
+        //the unique constraint catches what the check missed
+        assertThrows(DuplicateArticleException.class, () -> articleService.createArticle(copy));
+
+        Article other = articleService.getLatestEntries(2).get(1);
+        copy.setVersion(other.getVersion());
+        assertThrows(DuplicateArticleException.class, () -> articleService.updateArticle(other.getArticleId(), copy));
+    }
+
+    @Test
+    public void categoryCountsFollowWrites() {
+        assertEquals(12, count("Category"));
+        Article article = articleService.createArticle(new Article("Title", "Other", "Author", "Description", "Content"));
+        assertEquals(1, count("Other"));
+
+        Article details = new Article("Title", "Category", "Author", "Description", "Content");
+        details.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), details);
+        assertEquals(13, count("Category"));
+        //categories without articles are left out
+        assertEquals(0, count("Other"));
+        assertTrue(articleService.findCategoryCounts().stream().noneMatch(c -> c.getCategory().equals("Other")));
+
+        articleService.deleteArticle(article.getArticleId());
+        assertEquals(12, count("Category"));
+        assertEquals(12, articleService.findKeysetPage("Category", null, 20, ArticleSummary.class).getContent().size());
+    }
+
+    /**
+     * every editor reads the article, appends a line to its content and saves it based on the version read;
+     * a conflict is retried with a fresh read. No row is locked while an editor works
+     */
+    @Test
+    public void concurrentEditsLoseNoUpdates() throws Exception {
+        long id = articleService.getLatestEntry().getArticleId();
+        //every statement of the database from here on
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        int editors = 8;
+        int edits = 10;
+        ExecutorService pool = Executors.newFixedThreadPool(editors);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int editor = 0; editor < editors; editor++) {
+            String name = "editor-" + editor;
+            futures.add(pool.submit(() -> {
+                for (int edit = 0; edit < edits; edit++) {
+                    while (true) {
+                        Article current = articleService.findById(id);
+                        Article details = new Article(current.getTitle(), edit % 2 == 0 ? "Red" : "Blue",
+                                current.getAuthor(), current.getDescription(),
+                                current.getContent() + "\n" + name + ":" + edit);
+                        details.setVersion(current.getVersion());
+                        try {
+                            articleService.updateArticle(id, details);
+                            break;
+                        } catch (StaleArticleException e) {
+                            //someone else saved in between, start over from their version
+                        }
+                    }
+                }
+            }));
+        }
+        pool.shutdown();
+        List<String> statements;
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            statements = jdbcTemplate.queryForList(
+                    "SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class);
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+        //no locking read, the UPDATE checks the version
+        assertTrue(statements.stream().anyMatch(sql -> sql.startsWith("update articles")), statements::toString);
+        assertTrue(statements.stream().noneMatch(sql -> sql.toUpperCase().contains("FOR UPDATE")),
+                statements::toString);
+
+        Article article = articleService.findById(id);
+        assertEquals(editors * edits, article.getVersion().longValue());
+        List<String> lines = Arrays.asList(article.getContent().split("\n"));
+        assertEquals(1 + editors * edits, lines.size());
+        for (int editor = 0; editor < editors; editor++) {
+            for (int edit = 0; edit < edits; edit++) {
+                assertTrue(lines.contains("editor-" + editor + ":" + edit));
+            }
+        }
+        //the category read without a lock is always the one replaced
+        assertEquals(1, count("Red") + count("Blue"));
+        assertEquals(11, count("Category"));
+    }
+
+    @Test
+    public void bodyIsRenderedWhenSaved() {
+        Article article = articleService.createArticle(new Article("Rendered", "Category", "Author", "Description",
+                "First <script>alert('x')</script>\r\nsame paragraph\n \n\n  Second & last\n"));
+        assertEquals("<p>First &lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;<br>\nsame paragraph</p>\n"
+                + "<p>Second &amp; last</p>", articleService.findRenderedById(article.getArticleId()).getContentHtml());
+
+        Article details = new Article("Rendered", "Category", "Author", "Description", "Updated");
+        details.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), details);
+        assertEquals("<p>Updated</p>", new String(jdbcTemplate.queryForObject(
+                "SELECT html FROM article_contents WHERE article_id = ?", byte[].class, article.getArticleId()),
+                StandardCharsets.UTF_8));
+
+        //articles saved before the html column are rendered when they are read
+        jdbcTemplate.update("UPDATE article_contents SET html = NULL WHERE article_id = ?", article.getArticleId());
+        cacheManager.getCache(ArticleServiceImpl.RENDERED_ARTICLE_CACHE).clear();
+        assertEquals("<p>Updated</p>", articleService.findRenderedById(article.getArticleId()).getContentHtml());
+    }
+
+    @Test
+    public void articlePageReadsOnlyTheHtml() {
+        Article article = articleService.getLatestEntry();
+        Article rendered = articleService.findRenderedById(article.getArticleId());
+        assertEquals("<p>Content</p>", rendered.getContentHtml());
+        assertNull(rendered.getContent());
+        Article edited = articleService.findById(article.getArticleId());
+        assertEquals("Content", edited.getContent());
+        assertNull(edited.getContentHtml());
+
+        Article details = new Article(article.getTitle(), "Category", "Author", "Description", "Changed");
+        details.setVersion(article.getVersion());
+        articleService.updateArticle(article.getArticleId(), details);
+        assertEquals("<p>Changed</p>", articleService.findRenderedById(article.getArticleId()).getContentHtml());
+        assertEquals("Changed", articleService.findById(article.getArticleId()).getContent());
+    }
+
+    @Test
+    public void updateWithoutVersionFails() {
+        Article article = articleService.getLatestEntry();
+        Article details = new Article(article.getTitle(), "Category", "Author", "Description", "Unversioned");
+        assertThrows(BadRequestException.class, () -> articleService.updateArticle(article.getArticleId(), details));
+        assertEquals("Content", articleService.findById(article.getArticleId()).getContent());
+        assertEquals(article.getVersion(), articleService.findById(article.getArticleId()).getVersion());
+    }
+
+    @Test
+    public void updateOfAnOldVersionFails() {
+        Article article = articleService.getLatestEntry();
+        Article details = new Article(article.getTitle(), "Category", "Author", "Description", "First");
+        details.setVersion(article.getVersion());
+        assertEquals(article.getVersion() + 1, articleService.updateArticle(article.getArticleId(), details)
+                .getVersion().longValue());
+
+        Article stale = new Article(article.getTitle(), "Category", "Author", "Description", "Second");
+        stale.setVersion(article.getVersion());
+        assertThrows(StaleArticleException.class, () -> articleService.updateArticle(article.getArticleId(), stale));
+        assertEquals("First", articleService.findById(article.getArticleId()).getContent());
+    }
+
+    private long count(String category) {
+        return articleService.findCategoryCounts().stream()
+                .filter(c -> c.getCategory().equals(category))
+                .mapToLong(CategoryCount::getCount).sum();
+    }
+
+    @Test
+    public void countArticlesIsRefreshedAfterCreate() {
+        assertEquals(12, articleService.countArticles());
+        articleService.createArticle(new Article("Title", "Category", "Author", "Description", "Content"));
+        assertEquals(13, articleService.countArticles());
+    }
+
+    @Test
+    public void watermarkMovesAfterTheCommit() throws Exception {
+        long before = articleService.getLastModified();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                articleService.createArticle(new Article("Title", "Category", "Author", "Description", "Content"));
+                //a request in another thread still reads the articles without the new one
+                try {
+                    assertEquals(before, (long) reader.submit(articleService::getLastModified).get());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return null;
+            });
+        } finally {
+            reader.shutdown();
+        }
+        assertTrue(articleService.getLastModified() > before);
+    }
+
+    @Test
+    public void watermarkFollowsChangesOfOtherInstances() {
+        Object target = AopTestUtils.getUltimateTargetObject(articleService);
+        Object ttl = ReflectionTestUtils.getField(target, "lastModifiedTtlMillis");
+        ReflectionTestUtils.setField(target, "lastModifiedTtlMillis", 0L);
+        try {
+            long before = articleService.getLastModified();
+            //written by another instance, this one has no part in it
+            long updatedAt = before + 60000;
+            jdbcTemplate.update("UPDATE articles SET updated_at = ? WHERE article_id = ?",
+                    new Date(updatedAt), articleService.getLatestEntry().getArticleId());
+            assertEquals(updatedAt, articleService.getLastModified());
+
+            jdbcTemplate.update("INSERT INTO article_tombstones (article_id, deleted_at) VALUES (?, ?)",
+                    -1L, new Date(updatedAt + 1000));
+            assertEquals(updatedAt + 1000, articleService.getLastModified());
+        } finally {
+            jdbcTemplate.update("DELETE FROM article_tombstones WHERE article_id = -1");
+            ReflectionTestUtils.setField(target, "lastModifiedTtlMillis", ttl);
+        }
+    }
+}